@@ -0,0 +1,12 @@
+package com.finconsgroup.com.zoo.audit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+
+import java.time.Instant;
+
+// the site scopes what a caller may read and is not shown to clients
+public record AuditEvent(Instant timestamp, EntityType entityType, AuditAction action, long entityId, String actor,
+                         @JsonIgnore Long site) {
+}
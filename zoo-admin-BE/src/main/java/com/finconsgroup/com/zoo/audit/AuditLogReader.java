@@ -0,0 +1,93 @@
+package com.finconsgroup.com.zoo.audit;
+
+import com.finconsgroup.com.zoo.enums.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class AuditLogReader {
+
+    private final AuditLogWriter auditLogWriter;
+
+    /**
+     * Returns the most recent matching events of a site, oldest first. Every other
+     * filter is optional.
+     */
+    public List<AuditEvent> find(long site, EntityType entityType, Long entityId, Instant from, Instant to, int limit) {
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+
+        try {
+            List<Path> segments = AuditSegments.list(auditLogWriter.directory());
+            LinkedList<AuditEvent> result = new LinkedList<>();
+
+            for (int i = segments.size() - 1; i >= 0 && result.size() < limit; i--) {
+                long segmentStart = AuditSegments.firstTimestamp(segments.get(i));
+                long segmentEnd = i + 1 < segments.size()
+                        ? AuditSegments.firstTimestamp(segments.get(i + 1))
+                        : Long.MAX_VALUE;
+
+                if (segmentStart > toMillis || segmentEnd < fromMillis) {
+                    continue;
+                }
+
+                List<AuditEvent> matches = scan(segments.get(i), site, entityType, entityId, fromMillis, toMillis);
+                for (int j = matches.size() - 1; j >= 0 && result.size() < limit; j--) {
+                    result.addFirst(matches.get(j));
+                }
+            }
+
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<AuditEvent> scan(Path path, long site, EntityType entityType, Long entityId, long fromMillis, long toMillis)
+            throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            // removed by retention while we were scanning
+            return List.of();
+        }
+
+        List<AuditEvent> matches = new ArrayList<>();
+        int offset = 0;
+        int length;
+        while ((length = AuditSegments.lengthAt(buffer, offset)) > 0) {
+            AuditEvent event = AuditSegments.read(buffer, offset, length);
+            offset += AuditSegments.recordSize(length);
+
+            long timestamp = event.timestamp().toEpochMilli();
+            if (timestamp < fromMillis || timestamp > toMillis) {
+                continue;
+            }
+            if (event.site() == null || event.site() != site) {
+                continue;
+            }
+            if (entityType != null && event.entityType() != entityType) {
+                continue;
+            }
+            if (entityId != null && event.entityId() != entityId) {
+                continue;
+            }
+            matches.add(event);
+        }
+        return matches;
+    }
+}
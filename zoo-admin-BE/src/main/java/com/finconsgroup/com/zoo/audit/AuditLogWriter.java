@@ -0,0 +1,203 @@
+package com.finconsgroup.com.zoo.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends audit events to memory-mapped segment files from a single background
+ * thread. Request threads only enqueue; when the queue is full the event is
+ * dropped and counted rather than slowing the request down. Bulk records can wait
+ * for room instead, see {@link #appendWaiting}.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private static final int DRAIN_BATCH = 256;
+    private static final long RETENTION_CHECK_MILLIS = 60_000;
+    private static final long BULK_WAIT_MILLIS = 5_000;
+
+    private final AuditProperties properties;
+    private final Path directory;
+    private final int segmentSize;
+    private final BlockingQueue<AuditEvent> queue;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    private MappedByteBuffer segment;
+    private long segmentFirstTimestamp;
+    private boolean dirty;
+    private long lastForce;
+    private long lastRetentionCheck;
+
+    public AuditLogWriter(AuditProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentSize = (int) properties.getSegmentSize().toBytes();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.dropped = Counter.builder("zoo.audit.dropped").register(meterRegistry);
+        meterRegistry.gauge("zoo.audit.queue.size", queue, BlockingQueue::size);
+    }
+
+    public void append(AuditEvent event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Waits for room in the queue, so a bulk record of more events than it holds is
+     * slowed down to the writer's pace instead of losing events. Gives up, counting
+     * the event as dropped and returning false, when the writer frees no room for a
+     * few seconds.
+     */
+    public boolean appendWaiting(AuditEvent event) {
+        try {
+            if (queue.offer(event, BULK_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        return false;
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(directory);
+        openLatestSegment();
+
+        running = true;
+        worker = new Thread(this::run, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(DRAIN_BATCH);
+        long pollMillis = properties.getFsyncInterval().toMillis();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, DRAIN_BATCH - 1);
+                    for (AuditEvent event : batch) {
+                        write(event);
+                    }
+                    batch.clear();
+                }
+
+                long now = System.currentTimeMillis();
+                if (dirty && now - lastForce >= pollMillis) {
+                    force(now);
+                }
+                if (now - lastRetentionCheck >= RETENTION_CHECK_MILLIS) {
+                    applyRetention(now);
+                }
+            } catch (InterruptedException e) {
+                // woken up by stop(): keep draining until the queue is empty
+            } catch (IOException | RuntimeException e) {
+                log.error("Scrittura del log di audit fallita", e);
+                batch.clear();
+            }
+        }
+
+        force(System.currentTimeMillis());
+    }
+
+    private void write(AuditEvent event) throws IOException {
+        byte[] actor = AuditSegments.actorBytes(event.actor());
+        int recordSize = AuditSegments.recordSize(AuditSegments.bodyLength(actor));
+
+        // keep room for the zero length that terminates the segment
+        if (segment.remaining() < recordSize + AuditSegments.HEADER_BYTES) {
+            roll(event.timestamp().toEpochMilli());
+        }
+
+        AuditSegments.write(segment, event, actor);
+        dirty = true;
+    }
+
+    private void roll(long timestamp) throws IOException {
+        force(System.currentTimeMillis());
+        openSegment(Math.max(timestamp, segmentFirstTimestamp + 1));
+    }
+
+    private void openLatestSegment() throws IOException {
+        List<Path> segments = AuditSegments.list(directory);
+        if (segments.isEmpty()) {
+            openSegment(System.currentTimeMillis());
+            return;
+        }
+
+        Path latest = segments.get(segments.size() - 1);
+        segment = map(latest);
+        segmentFirstTimestamp = AuditSegments.firstTimestamp(latest);
+        segment.position(AuditSegments.endOfRecords(segment));
+    }
+
+    private void openSegment(long firstTimestamp) throws IOException {
+        segment = map(AuditSegments.segmentPath(directory, firstTimestamp));
+        segmentFirstTimestamp = firstTimestamp;
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private void force(long now) {
+        if (dirty) {
+            segment.force();
+            dirty = false;
+        }
+        lastForce = now;
+    }
+
+    private void applyRetention(long now) throws IOException {
+        lastRetentionCheck = now;
+        long cutoff = now - properties.getRetention().toMillis();
+
+        // a segment only holds records older than the first record of the next one
+        List<Path> segments = AuditSegments.list(directory);
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (AuditSegments.firstTimestamp(segments.get(i + 1)) < cutoff) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.finconsgroup.com.zoo.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.audit")
+public class AuditProperties {
+
+    private String directory = "audit-log";
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private Duration fsyncInterval = Duration.ofSeconds(1);
+    private Duration retention = Duration.ofDays(90);
+    private int queueCapacity = 65536;
+}
@@ -0,0 +1,131 @@
+package com.finconsgroup.com.zoo.audit;
+
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * On-disk layout shared by {@link AuditLogWriter} and {@link AuditLogReader}.
+ * <p>
+ * A segment is a fixed-size, zero-filled file named after the timestamp of its
+ * first record. Each record is an int length followed by: long epoch millis,
+ * byte entity type, byte action, long entity id, short actor length, the actor's
+ * UTF-8 bytes and the long site id (0 for none), padded to a 4-byte boundary.
+ * Records written before the site was added end after the actor and read back
+ * without a site. The length is written last
+ * with release semantics, so a zero length marks the end of the committed records.
+ */
+final class AuditSegments {
+
+    static final String PREFIX = "audit-";
+    static final String SUFFIX = ".log";
+    static final int HEADER_BYTES = Integer.BYTES;
+    static final int MAX_ACTOR_BYTES = 255;
+
+    private static final VarHandle LENGTH = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private AuditSegments() {
+    }
+
+    static Path segmentPath(Path directory, long firstTimestampMillis) {
+        return directory.resolve(String.format("%s%019d%s", PREFIX, firstTimestampMillis, SUFFIX));
+    }
+
+    static long firstTimestamp(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIX) && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static byte[] actorBytes(String actor) {
+        byte[] bytes = (actor == null ? "" : actor).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_ACTOR_BYTES) {
+            return bytes;
+        }
+        byte[] truncated = new byte[MAX_ACTOR_BYTES];
+        System.arraycopy(bytes, 0, truncated, 0, MAX_ACTOR_BYTES);
+        return truncated;
+    }
+
+    static int bodyLength(byte[] actor) {
+        return Long.BYTES + 1 + 1 + Long.BYTES + Short.BYTES + actor.length + Long.BYTES;
+    }
+
+    static int recordSize(int bodyLength) {
+        return (HEADER_BYTES + bodyLength + 3) & ~3;
+    }
+
+    static void write(ByteBuffer buffer, AuditEvent event, byte[] actor) {
+        int start = buffer.position();
+        int length = bodyLength(actor);
+
+        buffer.position(start + HEADER_BYTES);
+        buffer.putLong(event.timestamp().toEpochMilli());
+        buffer.put(event.entityType().getCode());
+        buffer.put(event.action().getCode());
+        buffer.putLong(event.entityId());
+        buffer.putShort((short) actor.length);
+        buffer.put(actor);
+        buffer.putLong(event.site() != null ? event.site() : 0);
+
+        buffer.position(start + recordSize(length));
+        LENGTH.setRelease(buffer, start, length);
+    }
+
+    /**
+     * @return the length of the record at the given offset, 0 at the end of the segment
+     */
+    static int lengthAt(ByteBuffer buffer, int offset) {
+        if (offset + HEADER_BYTES > buffer.capacity()) {
+            return 0;
+        }
+        return (int) LENGTH.getAcquire(buffer, offset);
+    }
+
+    static AuditEvent read(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset + HEADER_BYTES);
+
+        Instant timestamp = Instant.ofEpochMilli(record.getLong());
+        EntityType entityType = EntityType.fromCode(record.get());
+        AuditAction action = AuditAction.fromCode(record.get());
+        long entityId = record.getLong();
+        byte[] actor = new byte[record.getShort()];
+        record.get(actor);
+        long site = record.position() + Long.BYTES <= offset + HEADER_BYTES + length ? record.getLong() : 0;
+
+        return new AuditEvent(timestamp, entityType, action, entityId, new String(actor, StandardCharsets.UTF_8),
+                site != 0 ? site : null);
+    }
+
+    static int endOfRecords(ByteBuffer buffer) {
+        int offset = 0;
+        int length;
+        while ((length = lengthAt(buffer, offset)) > 0) {
+            offset += recordSize(length);
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,111 @@
+package com.finconsgroup.com.zoo.audit;
+
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class AuditTrail {
+
+    private final AuditLogWriter auditLogWriter;
+    private final SiteContext siteContext;
+
+    /**
+     * Records a change made by the current user. Inside a transaction the event
+     * is only appended once the transaction commits.
+     */
+    public void record(EntityType entityType, AuditAction action, Long entityId) {
+        record(entityType, action, entityId, siteContext.currentSite());
+    }
+
+    /**
+     * For jobs running outside a request, which pass the site of the entity.
+     */
+    public void record(EntityType entityType, AuditAction action, Long entityId, Long site) {
+        if (entityId == null) {
+            return;
+        }
+
+        AuditEvent event = new AuditEvent(Instant.now(), entityType, action, entityId, currentActor(), site);
+        afterCommit(() -> auditLogWriter.append(event));
+    }
+
+    /**
+     * Same as {@link #record} for many entities at once, with a single commit hook.
+     * Until the commit the ids are kept as runs of consecutive values, so rows
+     * inserted in bulk, whose ids come from one sequence, cost a few longs however
+     * many there are. The events are built one at a time after the commit and wait
+     * for room in the writer's queue rather than being dropped.
+     */
+    public void recordAll(EntityType entityType, AuditAction action, List<Long> entityIds) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        String actor = currentActor();
+        Long site = siteContext.currentSite();
+        long[] runs = runs(entityIds);
+        afterCommit(() -> {
+            // once the writer stops making room, the rest no longer wait for it
+            boolean waiting = true;
+            for (int i = 0; i < runs.length; i += 2) {
+                for (long entityId = runs[i]; entityId <= runs[i + 1]; entityId++) {
+                    AuditEvent event = new AuditEvent(now, entityType, action, entityId, actor, site);
+                    if (waiting) {
+                        waiting = auditLogWriter.appendWaiting(event);
+                    } else {
+                        auditLogWriter.append(event);
+                    }
+                }
+            }
+        });
+    }
+
+    // first and last id of each run, in the order given
+    private static long[] runs(List<Long> entityIds) {
+        long[] runs = new long[8];
+        int length = 0;
+        for (long entityId : entityIds) {
+            if (length > 0 && entityId == runs[length - 1] + 1) {
+                runs[length - 1] = entityId;
+                continue;
+            }
+            if (length == runs.length) {
+                runs = Arrays.copyOf(runs, length * 2);
+            }
+            runs[length++] = entityId;
+            runs[length++] = entityId;
+        }
+        return Arrays.copyOf(runs, length);
+    }
+
+    private void afterCommit(Runnable append) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append.run();
+                }
+            });
+        } else {
+            append.run();
+        }
+    }
+
+    private String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+}
@@ -0,0 +1,212 @@
+package com.finconsgroup.com.zoo.capacity;
+
+import com.finconsgroup.com.zoo.config.CapacityProperties;
+import com.finconsgroup.com.zoo.dto.EnclosureOccupancyDto;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.exception.InvalidInputException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Enforces enclosure capacity from per-category occupancy counters instead of the
+ * enclosures' animal lists, so a placement costs the same for an enclosure with
+ * ten animals as for one with ten thousand.
+ */
+@Component
+@RequiredArgsConstructor
+public class EnclosureCapacity {
+
+    private static final AnimalCategory[] CATEGORIES = AnimalCategory.values();
+
+    // the row lock serialises every placement into the same enclosure
+    private static final String LOCK =
+            "SELECT id, area, max_animals FROM enclosures WHERE id = ANY(?::bigint[]) ORDER BY id FOR UPDATE";
+
+    private static final String OCCUPANCY =
+            "SELECT enclosure_id, category, animals FROM enclosure_occupancy WHERE enclosure_id = ANY(?::bigint[])";
+
+    private static final String STORE =
+            "INSERT INTO enclosure_occupancy (enclosure_id, category, animals) " +
+            "SELECT * FROM unnest(?::bigint[], ?::smallint[], ?::int[]) " +
+            "ON CONFLICT (enclosure_id, category) DO UPDATE SET animals = EXCLUDED.animals";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CapacityProperties properties;
+
+    /**
+     * Locks the given enclosures until the surrounding transaction ends and loads
+     * their limits and counters. Must run inside a transaction.
+     */
+    public Ledger open(Collection<Long> enclosureIds) {
+        Long[] ids = new TreeSet<>(enclosureIds.stream().filter(Objects::nonNull).toList()).toArray(Long[]::new);
+        Ledger ledger = new Ledger();
+        if (ids.length == 0) {
+            return ledger;
+        }
+
+        jdbcTemplate.query(LOCK, rs -> {
+            Double area = rs.getDouble(2);
+            if (rs.wasNull()) {
+                area = null;
+            }
+            Integer maxAnimals = rs.getInt(3);
+            if (rs.wasNull()) {
+                maxAnimals = null;
+            }
+            ledger.usages.put(rs.getLong(1), new Usage(area, maxAnimals));
+        }, (Object) ids);
+        jdbcTemplate.query(OCCUPANCY, rs -> {
+            Usage usage = ledger.usages.get(rs.getLong(1));
+            usage.counts[CodedEnum.fromCode(AnimalCategory.class, rs.getShort(2)).ordinal()] = rs.getInt(3);
+        }, (Object) ids);
+        return ledger;
+    }
+
+    /**
+     * Pending changes to the counters of a set of locked enclosures. Every placement
+     * is checked against the limits as it is made; {@link #flush()} writes the
+     * changed counters back.
+     */
+    public final class Ledger {
+
+        private final Map<Long, Usage> usages = new HashMap<>();
+
+        private Ledger() {
+        }
+
+        public void place(Long enclosureId, AnimalCategory category) {
+            if (category == null) {
+                throw new InvalidInputException("La categoria è obbligatoria per assegnare un animale a una gabbia");
+            }
+            Usage usage = usage(enclosureId);
+
+            if (usage.maxAnimals != null && usage.total() + 1 > usage.maxAnimals) {
+                throw new InvalidInputException("La gabbia " + enclosureId
+                        + " ha raggiunto il numero massimo di animali (" + usage.maxAnimals + ")");
+            }
+            double required = requiredArea(usage) + properties.minArea(category);
+            if (usage.area != null && required > usage.area + 1e-9) {
+                throw new InvalidInputException("Spazio insufficiente nella gabbia " + enclosureId
+                        + ": servono " + required + " m² su " + usage.area);
+            }
+            usage.add(category, 1);
+        }
+
+        public void release(Long enclosureId, AnimalCategory category) {
+            if (enclosureId == null || category == null) {
+                return;
+            }
+            Usage usage = usage(enclosureId);
+            if (usage.counts[category.ordinal()] > 0) {
+                usage.add(category, -1);
+            }
+        }
+
+        /**
+         * Replaces the limits loaded from the database, for an enclosure whose new
+         * area or maximum is not flushed yet.
+         */
+        public void limit(Long enclosureId, Double area, Integer maxAnimals) {
+            Usage usage = usage(enclosureId);
+            usage.area = area;
+            usage.maxAnimals = maxAnimals;
+        }
+
+        public void clear(Long enclosureId) {
+            Usage usage = usage(enclosureId);
+            for (AnimalCategory category : CATEGORIES) {
+                usage.add(category, -usage.counts[category.ordinal()]);
+            }
+        }
+
+        public void flush() {
+            List<Long> ids = new ArrayList<>();
+            List<Short> categories = new ArrayList<>();
+            List<Integer> counts = new ArrayList<>();
+            usages.forEach((id, usage) -> {
+                for (AnimalCategory category : CATEGORIES) {
+                    if (usage.changed[category.ordinal()]) {
+                        ids.add(id);
+                        categories.add(category.getCode());
+                        counts.add(usage.counts[category.ordinal()]);
+                        usage.changed[category.ordinal()] = false;
+                    }
+                }
+            });
+            if (!ids.isEmpty()) {
+                jdbcTemplate.update(STORE, ids.toArray(Long[]::new), categories.toArray(Short[]::new),
+                        counts.toArray(Integer[]::new));
+            }
+        }
+
+        public EnclosureOccupancyDto occupancy(Long enclosureId) {
+            Usage usage = usage(enclosureId);
+            EnclosureOccupancyDto dto = new EnclosureOccupancyDto();
+            dto.setEnclosure(enclosureId);
+            dto.setArea(usage.area);
+            dto.setMaxAnimals(usage.maxAnimals);
+            dto.setAnimals(usage.total());
+            dto.setRequiredArea(requiredArea(usage));
+            for (AnimalCategory category : CATEGORIES) {
+                if (usage.counts[category.ordinal()] > 0) {
+                    dto.getByCategory().put(category, usage.counts[category.ordinal()]);
+                }
+            }
+            return dto;
+        }
+
+        private Usage usage(Long enclosureId) {
+            Usage usage = usages.get(enclosureId);
+            if (usage == null) {
+                throw new IllegalStateException("Gabbia " + enclosureId + " non bloccata per il controllo di capienza");
+            }
+            return usage;
+        }
+
+        private double requiredArea(Usage usage) {
+            double required = 0;
+            for (AnimalCategory category : CATEGORIES) {
+                required += usage.counts[category.ordinal()] * properties.minArea(category);
+            }
+            return required;
+        }
+    }
+
+    private static final class Usage {
+
+        private Double area;
+        private Integer maxAnimals;
+        private final int[] counts = new int[CATEGORIES.length];
+        private final boolean[] changed = new boolean[CATEGORIES.length];
+
+        private Usage(Double area, Integer maxAnimals) {
+            this.area = area;
+            this.maxAnimals = maxAnimals;
+        }
+
+        private int total() {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        private void add(AnimalCategory category, int delta) {
+            if (delta != 0) {
+                counts[category.ordinal()] += delta;
+                changed[category.ordinal()] = true;
+            }
+        }
+    }
+}
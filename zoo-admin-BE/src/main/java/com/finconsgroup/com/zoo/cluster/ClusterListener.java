@@ -0,0 +1,246 @@
+package com.finconsgroup.com.zoo.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finconsgroup.com.zoo.config.ClusterProperties;
+import com.finconsgroup.com.zoo.detail.DetailResponseCache;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.escalation.UrgencyEscalator;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.event.EntityChangedEvent;
+import com.finconsgroup.com.zoo.event.TicketsChangedEvent;
+import com.finconsgroup.com.zoo.search.AnimalSearchIndex;
+import com.finconsgroup.com.zoo.stats.PopulationSnapshot;
+import com.finconsgroup.com.zoo.summary.ZooSummaryCache;
+import com.finconsgroup.com.zoo.workload.OperatorWorkload;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies the writes broadcast by the other nodes to this node's in-memory views.
+ * It holds one dedicated connection outside the pool, since a pooled connection
+ * would stop listening as soon as it is handed back. Notifications sent while the
+ * connection is down are lost, so after reconnecting every view is reloaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterListener {
+
+    private static final String ANIMALS =
+            "SELECT id, name, category, weight, user_id, enclosure_id, site_id FROM animals WHERE id = ANY(?::bigint[]) AND NOT deleted";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ClusterProperties properties;
+    private final ClusterNotifier clusterNotifier;
+    private final AnimalSearchIndex animalSearchIndex;
+    private final PopulationSnapshot populationSnapshot;
+    private final ZooSummaryCache zooSummaryCache;
+    private final DetailResponseCache detailResponseCache;
+    private final OperatorWorkload operatorWorkload;
+    private final UrgencyEscalator urgencyEscalator;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread worker;
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "cluster-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        // unblocks a thread waiting for notifications
+        close();
+        worker.join(properties.getReconnectDelay().toMillis());
+    }
+
+    private void run() {
+        boolean resync = false;
+        while (running) {
+            try {
+                listen();
+                if (resync) {
+                    resync();
+                    resync = false;
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                int pollMillis = Math.toIntExact(properties.getPollTimeout().toMillis());
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null && notifications.length > 0) {
+                        apply(notifications);
+                    } else if (!connection.isValid(5)) {
+                        throw new SQLException("Connessione di ascolto non più valida");
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Ascolto del canale {} interrotto, nuovo tentativo tra {}: {}",
+                        properties.getChannel(), properties.getReconnectDelay(), e.getMessage());
+                close();
+                resync = true;
+                try {
+                    Thread.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        close();
+    }
+
+    private void listen() throws SQLException {
+        connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN \"" + properties.getChannel().replace("\"", "\"\"") + "\"");
+        }
+        log.info("In ascolto sul canale {}", properties.getChannel());
+    }
+
+    private void close() {
+        Connection current = connection;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (SQLException e) {
+            log.debug("Chiusura della connessione di ascolto fallita", e);
+        }
+        connection = null;
+    }
+
+    private void resync() {
+        log.info("Riallineamento delle viste in memoria dopo la riconnessione");
+        animalSearchIndex.rebuild();
+        populationSnapshot.rebuild();
+        zooSummaryCache.invalidate(null);
+        detailResponseCache.invalidateAll();
+        operatorWorkload.rebuild();
+        urgencyEscalator.resync();
+    }
+
+    private void apply(PGNotification[] notifications) {
+        Set<Long> animals = new LinkedHashSet<>();
+        boolean reloadAnimals = false;
+        Set<Long> summarySites = new HashSet<>();
+        boolean allSummaries = false;
+        Set<Long> enclosures = new LinkedHashSet<>();
+        Set<Long> users = new LinkedHashSet<>();
+        Set<Long> tickets = new LinkedHashSet<>();
+        Set<Long> ticketUsers = new LinkedHashSet<>();
+
+        for (PGNotification notification : notifications) {
+            ClusterMessage message;
+            try {
+                message = objectMapper.readValue(notification.getParameter(), ClusterMessage.class);
+            } catch (Exception e) {
+                log.warn("Notifica di cluster illeggibile ignorata: {}", notification.getParameter());
+                continue;
+            }
+            if (clusterNotifier.getNodeId().equals(message.node())) {
+                continue;
+            }
+            EntityType type = message.type();
+            if (type != EntityType.TICKET) {
+                if (message.site() == null) {
+                    allSummaries = true;
+                } else {
+                    summarySites.add(message.site());
+                }
+            }
+            switch (type) {
+                case ANIMAL -> {
+                    reloadAnimals |= message.reload();
+                    animals.addAll(message.ids());
+                }
+                case USER -> users.addAll(message.ids());
+                case ENCLOSURE -> enclosures.addAll(message.ids());
+                case TICKET -> {
+                    tickets.addAll(message.ids());
+                    ticketUsers.addAll(message.users());
+                }
+            }
+        }
+
+        if (reloadAnimals) {
+            animalSearchIndex.rebuild();
+            populationSnapshot.rebuild();
+            detailResponseCache.invalidateAll();
+        } else if (!animals.isEmpty()) {
+            refreshAnimals(animals);
+        }
+        if (allSummaries) {
+            zooSummaryCache.invalidate(null);
+        } else {
+            summarySites.forEach(zooSummaryCache::invalidate);
+        }
+        enclosures.forEach(id -> detailResponseCache.onEntityChanged(new EntityChangedEvent(EntityType.ENCLOSURE, id)));
+        users.forEach(id -> detailResponseCache.onEntityChanged(new EntityChangedEvent(EntityType.USER, id)));
+        detailResponseCache.onTicketsChanged(new TicketsChangedEvent(List.copyOf(tickets), List.copyOf(ticketUsers)));
+
+        users.addAll(ticketUsers);
+        operatorWorkload.refresh(users);
+        urgencyEscalator.refresh(tickets);
+    }
+
+    // rows that are gone were deleted; the views are updated directly so nothing is broadcast again
+    private void refreshAnimals(Set<Long> ids) {
+        List<AnimalDto> found = new ArrayList<>(ids.size());
+        Set<Long> missing = new HashSet<>(ids);
+        jdbcTemplate.query(ANIMALS, rs -> {
+            AnimalDto animal = new AnimalDto(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    CodedEnum.fromCode(AnimalCategory.class, rs.getObject(3, Short.class)),
+                    rs.getObject(4, Double.class),
+                    rs.getObject(5, Long.class),
+                    rs.getObject(6, Long.class),
+                    rs.getLong(7));
+            found.add(animal);
+            missing.remove(animal.getId());
+        }, (Object) ids.toArray(Long[]::new));
+        AnimalsChangedEvent event = new AnimalsChangedEvent(found, List.copyOf(missing), false);
+        animalSearchIndex.onAnimalsChanged(event);
+        populationSnapshot.onAnimalsChanged(event);
+        detailResponseCache.onAnimalsChanged(event);
+    }
+}
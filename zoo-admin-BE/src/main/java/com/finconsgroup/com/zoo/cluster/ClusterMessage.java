@@ -0,0 +1,14 @@
+package com.finconsgroup.com.zoo.cluster;
+
+import com.finconsgroup.com.zoo.enums.EntityType;
+
+import java.util.List;
+
+/**
+ * A write made on one node, as broadcast to the others. {@code site} is null when
+ * the write was not made for a single site; {@code reload} marks bulk writes that
+ * do not list what they touched.
+ */
+public record ClusterMessage(String node, EntityType type, Long site, List<Long> ids, List<Long> users,
+                             boolean reload) {
+}
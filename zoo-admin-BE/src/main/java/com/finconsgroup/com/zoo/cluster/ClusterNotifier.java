@@ -0,0 +1,90 @@
+package com.finconsgroup.com.zoo.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finconsgroup.com.zoo.config.ClusterProperties;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.event.EntityChangedEvent;
+import com.finconsgroup.com.zoo.event.TicketsChangedEvent;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Broadcasts every write to the other nodes with PostgreSQL NOTIFY. The notification
+ * is sent on the writing transaction's own connection just before it commits, so
+ * PostgreSQL delivers it only once the write is visible and drops it on rollback.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClusterNotifier {
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+    // payloads are limited to 8000 bytes; larger changes are split over several notifications
+    private static final int IDS_PER_MESSAGE = 150;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ClusterProperties properties;
+    private final SiteContext siteContext;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAnimalsChanged(AnimalsChangedEvent event) {
+        List<Long> ids = new ArrayList<>(event.changed().size() + event.removed().size());
+        event.changed().stream().map(AnimalDto::getId).forEach(ids::add);
+        ids.addAll(event.removed());
+        send(EntityType.ANIMAL, ids, List.of(), event.reload());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        send(event.type(), List.of(event.id()), List.of(), false);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTicketsChanged(TicketsChangedEvent event) {
+        send(EntityType.TICKET, event.tickets(), event.users(), false);
+    }
+
+    private void send(EntityType type, List<Long> ids, List<Long> users, boolean reload) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Long site = siteContext.currentSite();
+        int size = Math.max(ids.size(), users.size());
+        int from = 0;
+        do {
+            ClusterMessage message = new ClusterMessage(nodeId, type, site,
+                    slice(ids, from), slice(users, from), reload);
+            jdbcTemplate.query(NOTIFY, rs -> {
+            }, properties.getChannel(), write(message));
+            from += IDS_PER_MESSAGE;
+        } while (from < size);
+    }
+
+    private String write(ClusterMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Messaggio di cluster non serializzabile", e);
+        }
+    }
+
+    private static List<Long> slice(List<Long> ids, int from) {
+        return from < ids.size() ? ids.subList(from, Math.min(from + IDS_PER_MESSAGE, ids.size())) : List.of();
+    }
+}
@@ -0,0 +1,81 @@
+package com.finconsgroup.com.zoo.concurrency;
+
+import com.finconsgroup.com.zoo.config.ReadYourWritesTracker;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical reads share one execution: the first caller for a
+ * key runs the loader, callers arriving while it is in flight wait for and
+ * receive the same result. Nothing is kept once the execution completes.
+ * Callers inside their read-your-writes window run the loader on their own, so
+ * they never receive a result another request may have read from the replica.
+ * Keys are scoped to the caller's site, since loaders read through its tenant.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final SiteContext siteContext;
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, String key, Supplier<T> loader) {
+        if (readYourWritesTracker.hasRecentWrite()) {
+            counter(name, "bypassed").increment();
+            return loader.get();
+        }
+
+        String flightKey = name + ":" + siteContext.currentSite() + ":" + key;
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, call);
+
+        if (existing != null) {
+            counter(name, "coalesced").increment();
+            return (T) await(existing);
+        }
+
+        counter(name, "executed").increment();
+        try {
+            T result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, call);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String name, String outcome) {
+        return Counter.builder("zoo.singleflight.calls")
+                .tag("read", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
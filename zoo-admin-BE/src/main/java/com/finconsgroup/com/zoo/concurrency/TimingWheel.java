@@ -0,0 +1,147 @@
+package com.finconsgroup.com.zoo.concurrency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} slots of one tick each;
+ * every further level has slots as wide as the whole level below, and levels are
+ * added on demand. Scheduling and cancelling are O(1), and advancing costs one slot
+ * visit per tick plus the cascading of entries that move to a finer level.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level> levels = new ArrayList<>();
+    private long currentTime;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - startMillis % tickMillis;
+        levels.add(new Level(tickMillis));
+    }
+
+    /**
+     * @return the scheduled entry, or null when the deadline has already passed
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis);
+        return place(timeout) ? timeout : null;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis}, handing every expired and not
+     * cancelled payload to {@code onExpired}.
+     */
+    public synchronized void advance(long nowMillis, Consumer<T> onExpired) {
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+
+            // every level's clock moves before anything is re-placed, or entries coming
+            // down from a coarse slot could land in a finer slot that was already passed
+            for (Level level : levels) {
+                if (currentTime % level.tick == 0) {
+                    level.currentTime = currentTime;
+                }
+            }
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                Level level = levels.get(i);
+                if (currentTime % level.tick == 0) {
+                    cascade(level.drain(currentTime), onExpired);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade(ArrayDeque<Timeout<T>> bucket, Consumer<T> onExpired) {
+        Timeout<T> timeout;
+        while ((timeout = bucket.poll()) != null) {
+            size--;
+            if (!timeout.cancelled && !place(timeout)) {
+                onExpired.accept(timeout.payload);
+            }
+        }
+    }
+
+    // false when the deadline falls within the current tick
+    private boolean place(Timeout<T> timeout) {
+        if (timeout.deadline < currentTime + tickMillis) {
+            return false;
+        }
+
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                levels.add(new Level(levels.get(i - 1).tick * wheelSize));
+            }
+
+            Level level = levels.get(i);
+            if (timeout.deadline < level.currentTime + level.tick * wheelSize) {
+                level.slot(timeout.deadline).add(timeout);
+                size++;
+                return true;
+            }
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        private final T payload;
+        private final long deadline;
+        private volatile boolean cancelled;
+
+        private Timeout(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        // the entry stays in its slot and is dropped when the wheel reaches it
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private final class Level {
+
+        private final long tick;
+        private final ArrayDeque<Timeout<T>>[] slots;
+        private long currentTime;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tick) {
+            this.tick = tick;
+            this.slots = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                slots[i] = new ArrayDeque<>();
+            }
+            this.currentTime = TimingWheel.this.currentTime - TimingWheel.this.currentTime % tick;
+        }
+
+        private ArrayDeque<Timeout<T>> slot(long time) {
+            return slots[(int) ((time / tick) % wheelSize)];
+        }
+
+        private ArrayDeque<Timeout<T>> drain(long time) {
+            ArrayDeque<Timeout<T>> bucket = slot(time);
+            ArrayDeque<Timeout<T>> drained = new ArrayDeque<>(bucket);
+            bucket.clear();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.finconsgroup.com.zoo.config;
+
+import com.finconsgroup.com.zoo.enums.EndpointClass;
+import com.finconsgroup.com.zoo.enums.Role;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private Map<Role, Map<EndpointClass, Limit>> limits = new EnumMap<>(Role.class);
+
+    @Data
+    public static class Limit {
+        private double rate;
+        private int burst;
+    }
+}
@@ -0,0 +1,15 @@
+package com.finconsgroup.com.zoo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.assignment")
+public class AssignmentProperties {
+
+    // periodic and on-creation runs; the preview/run endpoints work regardless
+    private boolean enabled = false;
+    private boolean dryRun = false;
+    private int maxOpenPerOperator = 10;
+    private int batchSize = 500;
+}
@@ -0,0 +1,21 @@
+package com.finconsgroup.com.zoo.config;
+
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.capacity")
+public class CapacityProperties {
+
+    // square metres each animal of a category needs; categories left out need none
+    private Map<AnimalCategory, Double> minArea = new EnumMap<>(AnimalCategory.class);
+
+    public double minArea(AnimalCategory category) {
+        Double area = category != null ? minArea.get(category) : null;
+        return area != null ? area : 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.finconsgroup.com.zoo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.cluster")
+public class ClusterProperties {
+
+    private boolean enabled = true;
+    private String channel = "zoo_changes";
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+    // how long the listener waits for notifications before checking its connection
+    private Duration pollTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,77 @@
+package com.finconsgroup.com.zoo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool() {
+        return primaryDataSourceProperties().initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty("zoo.datasource.replica.url")
+    @ConfigurationProperties("zoo.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConditionalOnProperty("zoo.datasource.replica.url")
+    @ConfigurationProperties("zoo.datasource.replica.hikari")
+    public HikariDataSource replicaPool() {
+        return replicaDataSourceProperties().initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryPool") DataSource primaryPool,
+                                 @Qualifier("replicaPool") ObjectProvider<DataSource> replicaPool,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        DataSource replica = replicaPool.getIfAvailable();
+        if (replica == null) {
+            return primaryPool;
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.Route.PRIMARY, primaryPool);
+        targets.put(ReplicaRoutingDataSource.Route.REPLICA, replica);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(readYourWritesTracker);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryPool);
+        routing.afterPropertiesSet();
+
+        // the route must be decided when the first statement runs, after the
+        // transaction manager has flagged the transaction as read-only
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,19 @@
+package com.finconsgroup.com.zoo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.detail-cache")
+public class DetailCacheProperties {
+
+    private boolean enabled = true;
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+    // bounds how long writes made outside the application go unseen
+    private Duration maxAge = Duration.ofMinutes(1);
+    // entries depending on an entity written more recently than this are not kept
+    private Duration replicaLag = Duration.ofSeconds(5);
+}
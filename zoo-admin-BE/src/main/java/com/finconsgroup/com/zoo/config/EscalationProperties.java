@@ -0,0 +1,32 @@
+package com.finconsgroup.com.zoo.config;
+
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.escalation")
+public class EscalationProperties {
+
+    private boolean enabled = false;
+    private Duration tick = Duration.ofSeconds(1);
+    private int wheelSize = 64;
+    private int batchSize = 500;
+
+    // how long a ticket may stay unassigned at a given urgency before it is raised
+    private Map<TicketUrgency, Duration> deadlines = new EnumMap<>(TicketUrgency.class);
+    private Map<OperatorType, Map<TicketUrgency, Duration>> roles = new EnumMap<>(OperatorType.class);
+
+    public Duration deadline(OperatorType role, TicketUrgency urgency) {
+        Map<TicketUrgency, Duration> roleDeadlines = role != null ? roles.get(role) : null;
+        if (roleDeadlines != null && roleDeadlines.containsKey(urgency)) {
+            return roleDeadlines.get(urgency);
+        }
+        return deadlines.get(urgency);
+    }
+}
@@ -0,0 +1,50 @@
+package com.finconsgroup.com.zoo.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class MessageConverterConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    // DTOs carry @JsonFilter ids for sparse fieldsets; without an explicit
+    // selection every property is written
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilters() {
+        return builder -> builder.filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    // Spring MVC registers Smile and CBOR converters on its own when the formats are on
+    // the classpath, but with a plain mapper that knows no filters; they are replaced in
+    // place, so binary encodings keep their position after JSON and honour field selections
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> {
+            if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                return new MappingJackson2SmileHttpMessageConverter(
+                        objectMapperBuilder.getObject().factory(new SmileFactory()).build());
+            }
+            if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                return new MappingJackson2CborHttpMessageConverter(
+                        objectMapperBuilder.getObject().factory(new CBORFactory()).build());
+            }
+            return converter;
+        });
+    }
+}
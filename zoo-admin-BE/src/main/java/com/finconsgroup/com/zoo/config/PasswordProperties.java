@@ -0,0 +1,14 @@
+package com.finconsgroup.com.zoo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.password")
+public class PasswordProperties {
+
+    // BCrypt cost; raising it re-hashes each stored password at its owner's next login
+    private int strength = 10;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+}
@@ -0,0 +1,20 @@
+package com.finconsgroup.com.zoo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.purge")
+public class PurgeProperties {
+
+    private boolean enabled = true;
+    // off-peak start of the purge; the schedule itself is read by TombstonePurge
+    private String cron = "0 0 3 * * *";
+    private int batchSize = 500;
+    // a run starts no new batch after this, leftovers wait for the next night
+    private Duration window = Duration.ofHours(2);
+    // breathing room for other traffic between two batches
+    private Duration pause = Duration.ofMillis(100);
+}
@@ -0,0 +1,55 @@
+package com.finconsgroup.com.zoo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ReadYourWritesTracker {
+
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(@Value("${zoo.datasource.read-your-writes-window:5s}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite() {
+        String username = currentUsername();
+        if (username != null) {
+            lastWriteByUser.put(username, System.nanoTime());
+        }
+    }
+
+    public boolean hasRecentWrite() {
+        String username = currentUsername();
+        if (username == null) {
+            return false;
+        }
+
+        Long lastWrite = lastWriteByUser.get(username);
+        if (lastWrite == null) {
+            return false;
+        }
+
+        if (System.nanoTime() - lastWrite < windowNanos) {
+            return true;
+        }
+
+        lastWriteByUser.remove(username, lastWrite);
+        return false;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,28 @@
+package com.finconsgroup.com.zoo.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RequiredArgsConstructor
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return readYourWritesTracker.hasRecentWrite() ? Route.PRIMARY : Route.REPLICA;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            readYourWritesTracker.recordWrite();
+        }
+        return Route.PRIMARY;
+    }
+}
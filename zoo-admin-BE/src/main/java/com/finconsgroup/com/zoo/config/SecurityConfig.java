@@ -1,11 +1,17 @@
 package com.finconsgroup.com.zoo.config;
 
+import com.finconsgroup.com.zoo.exception.PasswordHashingRejectedException;
+import com.finconsgroup.com.zoo.filter.AdmissionControlFilter;
+import com.finconsgroup.com.zoo.password.BoundedPasswordEncoder;
 import com.finconsgroup.com.zoo.service.CustomUserService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -16,6 +22,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -28,6 +35,9 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final CustomUserService customUserService;
+    private final AdmissionProperties admissionProperties;
+    private final MeterRegistry meterRegistry;
+    private final PasswordProperties passwordProperties;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -39,10 +49,12 @@ public class SecurityConfig {
 
                         .requestMatchers("/api/user/**").hasAnyAuthority("ADMIN", "MANAGER")
 
+                        .requestMatchers("/api/ticket/assignment/**").hasAnyAuthority("ADMIN", "MANAGER")
                         .requestMatchers(HttpMethod.POST, "/api/ticket/add").hasAnyAuthority("ADMIN", "MANAGER")
                         .requestMatchers(HttpMethod.PUT, "/api/ticket/**").hasAnyAuthority("ADMIN", "MANAGER")
                         .requestMatchers(HttpMethod.DELETE, "/api/ticket/**").hasAnyAuthority("ADMIN", "MANAGER")
                         .requestMatchers(HttpMethod.GET, "/api/ticket/all").hasAnyAuthority("ADMIN", "MANAGER")
+                        .requestMatchers(HttpMethod.GET, "/api/ticket/workload").hasAnyAuthority("ADMIN", "MANAGER")
                         .requestMatchers(HttpMethod.GET, "/api/ticket/dashboard").hasAnyAuthority("ADMIN", "MANAGER", "OPERATOR")
                         .requestMatchers(HttpMethod.POST, "/api/ticket/*/accept").hasAuthority("OPERATOR")
                         .requestMatchers(HttpMethod.GET, "/api/ticket/my-tickets").hasAuthority("OPERATOR")
@@ -54,16 +66,31 @@ public class SecurityConfig {
                         .requestMatchers("/api/animal/**").hasAnyAuthority("ADMIN", "MANAGER")
                         .requestMatchers("/api/enclosure/**").hasAnyAuthority("ADMIN", "MANAGER")
 
+                        .requestMatchers(HttpMethod.GET, "/api/summary").hasAnyAuthority("ADMIN", "MANAGER")
+
+                        .requestMatchers("/api/audit/**").hasAuthority("ADMIN")
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
+
                         .anyRequest().authenticated()
                 )
                 .httpBasic(httpBasic -> httpBasic
                         .authenticationEntryPoint((request, response, authException) -> {
 
+                            if (authException instanceof PasswordHashingRejectedException) {
+                                // written directly: an error dispatch would be refused as unauthenticated
+                                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                                response.getWriter().write("{\"success\":false,\"message\":\""
+                                        + authException.getMessage() + "\"}");
+                                return;
+                            }
                             if (!request.getRequestURI().startsWith("/api/auth/")) {
                                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, authException.getMessage());
                             }
                         })
                 )
+                .addFilterAfter(new AdmissionControlFilter(admissionProperties, meterRegistry), BasicAuthenticationFilter.class)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         return http.build();
@@ -74,12 +101,14 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(customUserService);
         return new ProviderManager(authProvider);
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(passwordProperties.getStrength()),
+                passwordProperties, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,16 @@
+package com.finconsgroup.com.zoo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.stats")
+public class StatsProperties {
+
+    private List<Double> percentiles = new ArrayList<>(List.of(5.0, 25.0, 50.0, 75.0, 95.0));
+    // below this many animals the statistics are computed on the calling thread
+    private int parallelThreshold = 50_000;
+}
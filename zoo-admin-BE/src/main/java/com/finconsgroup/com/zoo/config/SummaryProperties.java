@@ -0,0 +1,14 @@
+package com.finconsgroup.com.zoo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "zoo.summary")
+public class SummaryProperties {
+
+    // bounds how long writes made by other nodes or outside the application go unseen
+    private Duration maxAge = Duration.ofMinutes(1);
+}
@@ -1,12 +1,19 @@
 package com.finconsgroup.com.zoo.controller;
 
+import com.finconsgroup.com.zoo.concurrency.SingleFlight;
+import com.finconsgroup.com.zoo.detail.DetailResponseCache;
 import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
+import com.finconsgroup.com.zoo.enums.EntityType;
 import com.finconsgroup.com.zoo.interfaces.AnimalInterface;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("api/animal")
@@ -14,6 +21,8 @@ import java.util.List;
 public class AnimalController {
 
     private final AnimalInterface animalInterface;
+    private final SingleFlight singleFlight;
+    private final DetailResponseCache detailResponseCache;
 
     @PostMapping("/add")
     public ResponseEntity<AnimalDto> addAnimal(@RequestBody AnimalDto animalDto) {
@@ -21,13 +30,20 @@ public class AnimalController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AnimalDto> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(animalInterface.findById(id));
+    public ResponseEntity<?> findById(@PathVariable Long id,
+                                      @RequestParam(required = false) String fields,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FieldSelection selection = FieldSelection.of(fields, null, Set.of());
+        return detailResponseCache.get(EntityType.ANIMAL, id, selection, FieldSelection.ANIMAL_FILTER, accept,
+                () -> animalInterface.findById(id),
+                animal -> List.of(new DetailResponseCache.Dependency(EntityType.ANIMAL, animal.getId())));
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<AnimalDto>> findAll() {
-        return ResponseEntity.ok(animalInterface.findAll());
+    public ResponseEntity<MappingJacksonValue> findAll(@RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.of(fields, null, Set.of());
+        List<AnimalDto> animals = singleFlight.execute("animal.list", "all", animalInterface::findAll);
+        return ResponseEntity.ok(selection.wrap(animals, FieldSelection.ANIMAL_FILTER));
     }
 
     @PutMapping("/update/{id}")
@@ -0,0 +1,38 @@
+package com.finconsgroup.com.zoo.controller;
+
+import com.finconsgroup.com.zoo.dto.CsvImportReportDto;
+import com.finconsgroup.com.zoo.interfaces.AnimalCsvInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("api/animal")
+@RequiredArgsConstructor
+public class AnimalCsvController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final AnimalCsvInterface animalCsvInterface;
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<CsvImportReportDto> importCsv(InputStream body) {
+        return ResponseEntity.ok(animalCsvInterface.importCsv(body));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"animals.csv\"")
+                .body(animalCsvInterface::exportCsv);
+    }
+}
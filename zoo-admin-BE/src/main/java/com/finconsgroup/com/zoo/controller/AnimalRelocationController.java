@@ -0,0 +1,24 @@
+package com.finconsgroup.com.zoo.controller;
+
+import com.finconsgroup.com.zoo.dto.RelocationDtoInput;
+import com.finconsgroup.com.zoo.dto.RelocationDtoOutput;
+import com.finconsgroup.com.zoo.interfaces.AnimalRelocationInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/animal")
+@RequiredArgsConstructor
+public class AnimalRelocationController {
+
+    private final AnimalRelocationInterface animalRelocationInterface;
+
+    @PostMapping("/relocate")
+    public ResponseEntity<RelocationDtoOutput> relocate(@RequestBody RelocationDtoInput relocationDtoInput) {
+        return ResponseEntity.ok(animalRelocationInterface.relocate(relocationDtoInput));
+    }
+}
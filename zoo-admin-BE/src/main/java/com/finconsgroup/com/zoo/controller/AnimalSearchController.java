@@ -0,0 +1,40 @@
+package com.finconsgroup.com.zoo.controller;
+
+import com.finconsgroup.com.zoo.dto.AnimalSearchDtoInput;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.interfaces.AnimalSearchInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("api/animal")
+@RequiredArgsConstructor
+public class AnimalSearchController {
+
+    private final AnimalSearchInterface animalSearchInterface;
+
+    @GetMapping("/search")
+    public ResponseEntity<MappingJacksonValue> search(@RequestParam(required = false) List<AnimalCategory> category,
+                                                      @RequestParam(required = false) Double minWeight,
+                                                      @RequestParam(required = false) Double maxWeight,
+                                                      @RequestParam(required = false) List<Long> enclosure,
+                                                      @RequestParam(required = false) List<Long> user,
+                                                      @RequestParam(required = false) String name,
+                                                      @RequestParam(defaultValue = "0") int offset,
+                                                      @RequestParam(defaultValue = "50") int limit,
+                                                      @RequestParam(required = false) String fields) {
+        AnimalSearchDtoInput criteria = new AnimalSearchDtoInput(category, minWeight, maxWeight, enclosure, user,
+                name, offset, limit);
+        FieldSelection selection = FieldSelection.of(fields, null, Set.of());
+        return ResponseEntity.ok(selection.wrap(animalSearchInterface.search(criteria), FieldSelection.ANIMAL_FILTER));
+    }
+}
@@ -0,0 +1,42 @@
+package com.finconsgroup.com.zoo.controller;
+
+import com.finconsgroup.com.zoo.dto.WeightBucketDto;
+import com.finconsgroup.com.zoo.dto.WeightMeasurementDto;
+import com.finconsgroup.com.zoo.interfaces.AnimalWeightInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("api/animal")
+@RequiredArgsConstructor
+public class AnimalWeightController {
+
+    private final AnimalWeightInterface animalWeightInterface;
+
+    @PostMapping("/weights")
+    public ResponseEntity<Integer> ingest(@RequestBody List<WeightMeasurementDto> measurements) {
+        return new ResponseEntity<>(animalWeightInterface.ingest(measurements), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}/weights")
+    public ResponseEntity<List<WeightMeasurementDto>> findMeasurements(@PathVariable Long id,
+                                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(animalWeightInterface.findMeasurements(id, from, to));
+    }
+
+    @GetMapping("/{id}/weights/summary")
+    public ResponseEntity<List<WeightBucketDto>> downsample(@PathVariable Long id,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                            @RequestParam(defaultValue = "P1D") Duration bucket) {
+        return ResponseEntity.ok(animalWeightInterface.downsample(id, from, to, bucket));
+    }
+}
@@ -0,0 +1,34 @@
+package com.finconsgroup.com.zoo.controller;
+
+import com.finconsgroup.com.zoo.audit.AuditEvent;
+import com.finconsgroup.com.zoo.audit.AuditLogReader;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("api/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditLogReader auditLogReader;
+    private final SiteContext siteContext;
+
+    @GetMapping
+    public ResponseEntity<List<AuditEvent>> find(@RequestParam(required = false) EntityType entityType,
+                                                 @RequestParam(required = false) Long entityId,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                 @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(auditLogReader.find(siteContext.requireSite(), entityType, entityId, from, to, limit));
+    }
+}
@@ -1,8 +1,11 @@
 package com.finconsgroup.com.zoo.controller;
 
 import com.finconsgroup.com.zoo.entity.User;
+import com.finconsgroup.com.zoo.exception.PasswordHashingRejectedException;
 import com.finconsgroup.com.zoo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -48,7 +51,9 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                userRepository.updatePassword(user.getUsername(), passwordEncoder.encode(loginRequest.getPassword()));
+            }
 
 
             Map<String, Object> userInfo = new HashMap<>();
@@ -67,6 +72,11 @@ public class AuthController {
 
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingRejectedException e) {
+
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
         } catch (Exception e) {
 
             e.printStackTrace();
@@ -1,20 +1,34 @@
 package com.finconsgroup.com.zoo.controller;
 
+import com.finconsgroup.com.zoo.concurrency.SingleFlight;
+import com.finconsgroup.com.zoo.detail.DetailResponseCache;
+import com.finconsgroup.com.zoo.detail.DetailResponseCache.Dependency;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
 import com.finconsgroup.com.zoo.dto.EnclosureDtoInput;
 import com.finconsgroup.com.zoo.dto.EnclosureDtoOutput;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
+import com.finconsgroup.com.zoo.enums.EntityType;
 import com.finconsgroup.com.zoo.interfaces.EnclosureInterface;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("api/enclosure")
 @RequiredArgsConstructor
 public class EnclosureController {
 
+    private static final Set<String> EXPANDABLE = Set.of("animals");
+
     private final EnclosureInterface enclosureInterface;
+    private final SingleFlight singleFlight;
+    private final DetailResponseCache detailResponseCache;
 
     @PostMapping("/add")
     public ResponseEntity<EnclosureDtoOutput> addEnclosure(@RequestBody EnclosureDtoInput enclosureDtoInput) {
@@ -22,13 +36,22 @@ public class EnclosureController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<EnclosureDtoOutput> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(enclosureInterface.findById(id));
+    public ResponseEntity<?> findById(@PathVariable Long id,
+                                      @RequestParam(required = false) String fields,
+                                      @RequestParam(required = false) String expand,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FieldSelection selection = FieldSelection.of(fields, expand, EXPANDABLE);
+        return detailResponseCache.get(EntityType.ENCLOSURE, id, selection, FieldSelection.ENCLOSURE_FILTER, accept,
+                () -> enclosureInterface.findById(id, selection), EnclosureController::dependencies);
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<EnclosureDtoOutput>> findAll() {
-        return ResponseEntity.ok(enclosureInterface.findAll());
+    public ResponseEntity<MappingJacksonValue> findAll(@RequestParam(required = false) String fields,
+                                                       @RequestParam(required = false) String expand) {
+        FieldSelection selection = FieldSelection.of(fields, expand, EXPANDABLE);
+        List<EnclosureDtoOutput> enclosures = singleFlight.execute("enclosure.list", selection.key(),
+                () -> enclosureInterface.findAll(selection));
+        return ResponseEntity.ok(selection.wrap(enclosures, FieldSelection.ENCLOSURE_FILTER));
     }
 
     @PutMapping("/{id}")
@@ -40,4 +63,12 @@ public class EnclosureController {
     public ResponseEntity<EnclosureDtoOutput> deleteEnclosure(@PathVariable Long id) {
         return ResponseEntity.ok(enclosureInterface.deleteEnclosure(id));
     }
+
+    private static List<Dependency> dependencies(EnclosureDtoOutput enclosure) {
+        List<Dependency> dependencies = new ArrayList<>();
+        dependencies.add(new Dependency(EntityType.ENCLOSURE, enclosure.getId()));
+        dependencies.add(new Dependency(EntityType.USER, enclosure.getUser()));
+        DetailResponseCache.addAll(dependencies, EntityType.ANIMAL, enclosure.getAnimals(), AnimalDto::getId);
+        return dependencies;
+    }
 }
@@ -0,0 +1,22 @@
+package com.finconsgroup.com.zoo.controller;
+
+import com.finconsgroup.com.zoo.dto.PopulationStatsDto;
+import com.finconsgroup.com.zoo.interfaces.PopulationStatsInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/animal")
+@RequiredArgsConstructor
+public class PopulationStatsController {
+
+    private final PopulationStatsInterface populationStatsInterface;
+
+    @GetMapping("/stats")
+    public ResponseEntity<PopulationStatsDto> getStats() {
+        return ResponseEntity.ok(populationStatsInterface.getStats());
+    }
+}
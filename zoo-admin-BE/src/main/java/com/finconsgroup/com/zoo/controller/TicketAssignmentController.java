@@ -0,0 +1,28 @@
+package com.finconsgroup.com.zoo.controller;
+
+import com.finconsgroup.com.zoo.dto.AssignmentRunDto;
+import com.finconsgroup.com.zoo.interfaces.TicketAssignmentInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/ticket/assignment")
+@RequiredArgsConstructor
+public class TicketAssignmentController {
+
+    private final TicketAssignmentInterface ticketAssignmentInterface;
+
+    @GetMapping("/preview")
+    public ResponseEntity<AssignmentRunDto> preview() {
+        return ResponseEntity.ok(ticketAssignmentInterface.preview());
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<AssignmentRunDto> run() {
+        return ResponseEntity.ok(ticketAssignmentInterface.run());
+    }
+}
@@ -1,18 +1,27 @@
 package com.finconsgroup.com.zoo.controller;
 
+import com.finconsgroup.com.zoo.concurrency.SingleFlight;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
 import com.finconsgroup.com.zoo.dto.TicketDto;
+import com.finconsgroup.com.zoo.dto.WorkloadDto;
 import com.finconsgroup.com.zoo.entity.User;
+import com.finconsgroup.com.zoo.enums.Role;
 import com.finconsgroup.com.zoo.interfaces.TicketInterface;
 import com.finconsgroup.com.zoo.repository.UserRepository;
 import com.finconsgroup.com.zoo.service.TicketService;
+import com.finconsgroup.com.zoo.site.SiteUserDetails;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("api/ticket")
@@ -22,6 +31,7 @@ public class TicketController {
     private final TicketInterface ticketInterface;
     private final TicketService ticketService;
     private final UserRepository userRepository;
+    private final SingleFlight singleFlight;
 
     @PostMapping("/add")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('MANAGER')")
@@ -36,10 +46,12 @@ public class TicketController {
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('MANAGER') or hasAuthority('OPERATOR')")
-    public ResponseEntity<TicketDto> getTicketById(@PathVariable Long id) {
+    public ResponseEntity<MappingJacksonValue> getTicketById(@PathVariable Long id,
+                                                             @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.of(fields, null, Set.of());
         try {
             TicketDto ticket = ticketService.getTicketById(id);
-            return new ResponseEntity<>(ticket, HttpStatus.OK);
+            return new ResponseEntity<>(selection.wrap(ticket, FieldSelection.TICKET_FILTER), HttpStatus.OK);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
         }
@@ -47,21 +59,30 @@ public class TicketController {
 
     @GetMapping("/dashboard")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('MANAGER') or hasAuthority('OPERATOR')")
-    public ResponseEntity<List<TicketDto>> getTicketsForDashboard() {
+    public ResponseEntity<MappingJacksonValue> getTicketsForDashboard(@RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.of(fields, null, Set.of());
         try {
-            List<TicketDto> unassignedTickets = ticketService.getUnassignedTickets();
-            return ResponseEntity.ok(unassignedTickets);
+            List<TicketDto> unassignedTickets = singleFlight.execute("ticket.dashboard", dashboardScope(),
+                    ticketService::getUnassignedTickets);
+            return ResponseEntity.ok(selection.wrap(unassignedTickets, FieldSelection.TICKET_FILTER));
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @GetMapping("/workload")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('MANAGER')")
+    public ResponseEntity<List<WorkloadDto>> getWorkload() {
+        return ResponseEntity.ok(ticketInterface.getWorkload());
+    }
+
     @GetMapping("/my-tickets")
     @PreAuthorize("hasAuthority('OPERATOR')")
-    public ResponseEntity<List<TicketDto>> getMyAssignedTickets() {
+    public ResponseEntity<MappingJacksonValue> getMyAssignedTickets(@RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.of(fields, null, Set.of());
         try {
             List<TicketDto> myTickets = ticketService.getMyAssignedTickets();
-            return ResponseEntity.ok(myTickets);
+            return ResponseEntity.ok(selection.wrap(myTickets, FieldSelection.TICKET_FILTER));
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -78,6 +99,16 @@ public class TicketController {
         }
     }
 
+    @PostMapping("/next")
+    @PreAuthorize("hasAuthority('OPERATOR')")
+    public ResponseEntity<TicketDto> claimNextTicket() {
+        try {
+            TicketDto claimedTicket = ticketService.claimNextTicket();
+            return claimedTicket != null ? ResponseEntity.ok(claimedTicket) : ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
 
     @PostMapping("/{id}/complete")
     @PreAuthorize("hasAuthority('OPERATOR')")
@@ -103,10 +134,11 @@ public class TicketController {
 
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('MANAGER')")
-    public ResponseEntity<List<TicketDto>> getAllTickets() {
+    public ResponseEntity<MappingJacksonValue> getAllTickets(@RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.of(fields, null, Set.of());
         try {
             List<TicketDto> allTickets = ticketInterface.getAllTickets();
-            return ResponseEntity.ok(allTickets);
+            return ResponseEntity.ok(selection.wrap(allTickets, FieldSelection.TICKET_FILTER));
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -139,6 +171,18 @@ public class TicketController {
     }
 
 
+    // same visibility rule as TicketService.getUnassignedTickets, read from the
+    // principal so that building the key costs no query
+    private String dashboardScope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof SiteUserDetails user
+                && user.getOperatorType() != null
+                && user.getAuthorities().contains(new SimpleGrantedAuthority(Role.OPERATOR.name()))) {
+            return user.getOperatorType().name();
+        }
+        return "ALL";
+    }
+
     private User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username;
@@ -1,34 +1,55 @@
 package com.finconsgroup.com.zoo.controller;
 
+import com.finconsgroup.com.zoo.detail.DetailResponseCache;
+import com.finconsgroup.com.zoo.detail.DetailResponseCache.Dependency;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.dto.EnclosureDtoInput;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
+import com.finconsgroup.com.zoo.dto.TicketDto;
 import com.finconsgroup.com.zoo.dto.UserDtoInput;
 import com.finconsgroup.com.zoo.dto.UserDtoOutput;
+import com.finconsgroup.com.zoo.enums.EntityType;
 import com.finconsgroup.com.zoo.interfaces.UserInterface;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("api/user")
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final Set<String> EXPANDABLE = Set.of("animals", "enclosures", "tickets");
+
     private final UserInterface userInterface;
+    private final DetailResponseCache detailResponseCache;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDtoOutput> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(userInterface.findUserById(id));
+    public ResponseEntity<?> findById(@PathVariable Long id,
+                                      @RequestParam(required = false) String fields,
+                                      @RequestParam(required = false) String expand,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FieldSelection selection = FieldSelection.of(fields, expand, EXPANDABLE);
+        return detailResponseCache.get(EntityType.USER, id, selection, FieldSelection.USER_FILTER, accept,
+                () -> userInterface.findUserById(id, selection), UserController::dependencies);
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<UserDtoOutput>> findAll() {
-        return ResponseEntity.ok(userInterface.findAll());
+    public ResponseEntity<MappingJacksonValue> findAll(@RequestParam(required = false) String fields,
+                                                       @RequestParam(required = false) String expand) {
+        FieldSelection selection = FieldSelection.of(fields, expand, EXPANDABLE);
+        return ResponseEntity.ok(selection.wrap(userInterface.findAll(selection), FieldSelection.USER_FILTER));
     }
 
     @PostMapping("/add")
@@ -55,4 +76,17 @@ public class UserController {
     public ResponseEntity<UserDtoOutput> deleteUser(@PathVariable Long id) {
         return ResponseEntity.ok(userInterface.deleteUser(id));
     }
-}
\ No newline at end of file
+
+    // enclosures are shown with the ids of their animals
+    private static List<Dependency> dependencies(UserDtoOutput user) {
+        List<Dependency> dependencies = new ArrayList<>();
+        dependencies.add(new Dependency(EntityType.USER, user.getId()));
+        DetailResponseCache.addAll(dependencies, EntityType.ANIMAL, user.getAnimals(), AnimalDto::getId);
+        DetailResponseCache.addAll(dependencies, EntityType.ENCLOSURE, user.getEnclosures(), EnclosureDtoInput::getId);
+        if (user.getEnclosures() != null) {
+            user.getEnclosures().forEach(e -> DetailResponseCache.addAll(dependencies, EntityType.ANIMAL, e.getAnimals(), a -> a));
+        }
+        DetailResponseCache.addAll(dependencies, EntityType.TICKET, user.getTickets(), TicketDto::getId);
+        return dependencies;
+    }
+}
@@ -0,0 +1,22 @@
+package com.finconsgroup.com.zoo.controller;
+
+import com.finconsgroup.com.zoo.dto.ZooSummaryDto;
+import com.finconsgroup.com.zoo.interfaces.ZooSummaryInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/summary")
+@RequiredArgsConstructor
+public class ZooSummaryController {
+
+    private final ZooSummaryInterface zooSummaryInterface;
+
+    @GetMapping
+    public ResponseEntity<ZooSummaryDto> getSummary() {
+        return ResponseEntity.ok(zooSummaryInterface.getSummary());
+    }
+}
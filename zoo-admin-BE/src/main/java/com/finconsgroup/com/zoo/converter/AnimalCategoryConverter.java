@@ -0,0 +1,12 @@
+package com.finconsgroup.com.zoo.converter;
+
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import jakarta.persistence.Converter;
+
+@Converter
+public class AnimalCategoryConverter extends CodedEnumConverter<AnimalCategory> {
+
+    public AnimalCategoryConverter() {
+        super(AnimalCategory.class);
+    }
+}
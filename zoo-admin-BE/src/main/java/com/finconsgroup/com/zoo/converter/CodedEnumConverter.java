@@ -0,0 +1,26 @@
+package com.finconsgroup.com.zoo.converter;
+
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Maps a {@link CodedEnum} to its smallint column.
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Short> {
+
+    private final Class<E> type;
+
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E value) {
+        return value != null ? value.getCode() : null;
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        return CodedEnum.fromCode(type, code);
+    }
+}
@@ -0,0 +1,12 @@
+package com.finconsgroup.com.zoo.converter;
+
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import jakarta.persistence.Converter;
+
+@Converter
+public class OperatorTypeConverter extends CodedEnumConverter<OperatorType> {
+
+    public OperatorTypeConverter() {
+        super(OperatorType.class);
+    }
+}
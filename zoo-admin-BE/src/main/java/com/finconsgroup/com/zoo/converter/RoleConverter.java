@@ -0,0 +1,12 @@
+package com.finconsgroup.com.zoo.converter;
+
+import com.finconsgroup.com.zoo.enums.Role;
+import jakarta.persistence.Converter;
+
+@Converter
+public class RoleConverter extends CodedEnumConverter<Role> {
+
+    public RoleConverter() {
+        super(Role.class);
+    }
+}
@@ -0,0 +1,12 @@
+package com.finconsgroup.com.zoo.converter;
+
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import jakarta.persistence.Converter;
+
+@Converter
+public class TicketUrgencyConverter extends CodedEnumConverter<TicketUrgency> {
+
+    public TicketUrgencyConverter() {
+        super(TicketUrgency.class);
+    }
+}
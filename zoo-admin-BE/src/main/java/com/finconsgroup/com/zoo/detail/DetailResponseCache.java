@@ -0,0 +1,248 @@
+package com.finconsgroup.com.zoo.detail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finconsgroup.com.zoo.config.DetailCacheProperties;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.event.EntityChangedEvent;
+import com.finconsgroup.com.zoo.event.TicketsChangedEvent;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ready-to-write JSON bodies of the entity detail endpoints, so a hit costs no
+ * query, mapping or serialization. Each entry lists every entity its body shows;
+ * a committed write stamps the entities it touched with a new version, and an
+ * entry built before any of its entities' versions is thrown away on the next
+ * read. Loads may go to a replica, so an entry depending on an entity stamped
+ * within {@code zoo.detail-cache.replica-lag} is served but not kept. Entries are
+ * evicted least recently used once their bodies exceed
+ * {@code zoo.detail-cache.max-size}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DetailResponseCache {
+
+    private static final String ENCLOSURE_KEEPER = "SELECT user_id FROM enclosures WHERE id = ?";
+    private static final String KEPT_ENCLOSURES = "SELECT id FROM enclosures WHERE user_id = ? AND NOT deleted";
+
+    // rough per-entry cost of the key, the entry and its dependency list, besides the body
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final int DEPENDENCY_OVERHEAD = 48;
+    private static final int PRUNE_EVERY = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final DetailCacheProperties properties;
+    private final SiteContext siteContext;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Dependency, Stamp> versions = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long size;
+
+    /**
+     * The body of one entity, from the cache or freshly loaded. Clients that ask for
+     * a binary encoding bypass the cache and get the usual converter output.
+     */
+    public <T> ResponseEntity<?> get(EntityType type, Long id, FieldSelection selection, String filterId, String accept,
+                                     Supplier<T> loader, Function<T, List<Dependency>> dependencies) {
+        if (!properties.isEnabled() || !acceptsJson(accept)) {
+            return ResponseEntity.ok(selection.wrap(loader.get(), filterId));
+        }
+        Key key = new Key(siteContext.currentSite(), type, id, selection.key());
+        Entry entry = lookup(key);
+        if (entry == null) {
+            // read before loading: a write committed during the load leaves the entry stale
+            long builtAt = clock.get();
+            T body = loader.get();
+            entry = new Entry(serialize(selection.wrap(body, filterId)), builtAt, System.nanoTime(),
+                    List.copyOf(dependencies.apply(body)));
+            store(key, entry);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(entry.body());
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // a moved animal is a dependency of its old enclosure and keeper entries; the new ones are stamped here
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalsChanged(AnimalsChangedEvent event) {
+        if (event.reload()) {
+            invalidateAll();
+            return;
+        }
+        for (AnimalDto animal : event.changed()) {
+            stamp(EntityType.ANIMAL, animal.getId());
+            stamp(EntityType.ENCLOSURE, animal.getEnclosure());
+            stamp(EntityType.USER, animal.getUser());
+        }
+        event.removed().forEach(id -> stamp(EntityType.ANIMAL, id));
+    }
+
+    // keepers are changed from both sides, so the other side is looked up once the write is visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        stamp(event.type(), event.id());
+        switch (event.type()) {
+            case ENCLOSURE -> jdbcTemplate.queryForList(ENCLOSURE_KEEPER, Long.class, event.id())
+                    .forEach(user -> stamp(EntityType.USER, user));
+            case USER -> jdbcTemplate.queryForList(KEPT_ENCLOSURES, Long.class, event.id())
+                    .forEach(enclosure -> stamp(EntityType.ENCLOSURE, enclosure));
+            default -> {
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsChanged(TicketsChangedEvent event) {
+        event.tickets().forEach(id -> stamp(EntityType.TICKET, id));
+        event.users().forEach(id -> stamp(EntityType.USER, id));
+    }
+
+    public static <T> void addAll(List<Dependency> into, EntityType type, Collection<T> related, Function<T, Long> id) {
+        if (related != null) {
+            related.forEach(r -> into.add(new Dependency(type, id.apply(r))));
+        }
+    }
+
+    private void stamp(EntityType type, Long id) {
+        if (id == null) {
+            return;
+        }
+        long version = clock.incrementAndGet();
+        versions.put(new Dependency(type, id), new Stamp(version, System.nanoTime()));
+        if (version % PRUNE_EVERY == 0) {
+            prune();
+        }
+    }
+
+    // an entry built before a stamp older than max-age has expired anyway, so the stamp is no longer needed
+    private void prune() {
+        long keep = Math.max(properties.getMaxAge().toNanos(), properties.getReplicaLag().toNanos());
+        long now = System.nanoTime();
+        versions.values().removeIf(stamp -> now - stamp.stampedAt() >= keep);
+    }
+
+    private Entry lookup(Key key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && !isFresh(entry)) {
+                entries.remove(key);
+                size -= weight(entry);
+                entry = null;
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(Key key, Entry entry) {
+        if (!isFresh(entry) || !isSettled(entry)) {
+            return;
+        }
+        long maxSize = properties.getMaxSize().toBytes();
+        lock.lock();
+        try {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                size -= weight(previous);
+            }
+            size += weight(entry);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (size > maxSize && eldest.hasNext()) {
+                size -= weight(eldest.next());
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFresh(Entry entry) {
+        if (System.nanoTime() - entry.loadedAt() >= properties.getMaxAge().toNanos()) {
+            return false;
+        }
+        for (Dependency dependency : entry.dependencies()) {
+            Stamp stamp = versions.get(dependency);
+            if (stamp != null && stamp.version() > entry.builtAt()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // a replica may not have replayed a write stamped within its lag yet
+    private boolean isSettled(Entry entry) {
+        long lag = properties.getReplicaLag().toNanos();
+        long now = System.nanoTime();
+        for (Dependency dependency : entry.dependencies()) {
+            Stamp stamp = versions.get(dependency);
+            if (stamp != null && now - stamp.stampedAt() < lag) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] serialize(MappingJacksonValue value) {
+        try {
+            return objectMapper.writer(value.getFilters()).writeValueAsBytes(value.getValue());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Risposta non serializzabile", e);
+        }
+    }
+
+    private static long weight(Entry entry) {
+        return entry.body().length + ENTRY_OVERHEAD + (long) entry.dependencies().size() * DEPENDENCY_OVERHEAD;
+    }
+
+    // binary encodings are only written when asked for explicitly, see MessageConverterConfig
+    private static boolean acceptsJson(String accept) {
+        return accept == null || !(accept.contains("smile") || accept.contains("cbor"));
+    }
+
+    public record Dependency(EntityType type, Long id) {
+    }
+
+    private record Key(Long site, EntityType type, Long id, String selection) {
+    }
+
+    private record Entry(byte[] body, long builtAt, long loadedAt, List<Dependency> dependencies) {
+    }
+
+    private record Stamp(long version, long stampedAt) {
+    }
+}
@@ -1,6 +1,8 @@
 package com.finconsgroup.com.zoo.dto;
 
 import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +10,7 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(FieldSelection.ANIMAL_FILTER)
 public class AnimalDto {
 
     private Long id;
@@ -16,4 +19,8 @@ public class AnimalDto {
     private Double weight;
     private Long user;
     private Long enclosure;
+
+    // scopes the in-memory views; never read from or written to clients
+    @JsonIgnore
+    private Long site;
 }
@@ -0,0 +1,28 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search criteria; empty or null criteria match every animal. Values within one
+ * criterion are alternatives, different criteria must all hold.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimalSearchDtoInput {
+
+    private List<AnimalCategory> categories = new ArrayList<>();
+    private Double minWeight;
+    private Double maxWeight;
+    private List<Long> enclosures = new ArrayList<>();
+    private List<Long> users = new ArrayList<>();
+    private String namePrefix;
+    private int offset = 0;
+    private int limit = 50;
+}
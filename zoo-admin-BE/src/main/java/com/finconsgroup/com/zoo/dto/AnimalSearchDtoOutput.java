@@ -0,0 +1,29 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimalSearchDtoOutput {
+
+    private int total;
+    private int offset;
+    private int limit;
+    private List<AnimalDto> animals = new ArrayList<>();
+
+    // each facet counts matches under every criterion except its own, so the
+    // client can show how many results picking another value would give
+    private Map<AnimalCategory, Integer> categoryFacets = new EnumMap<>(AnimalCategory.class);
+    private Map<Long, Integer> enclosureFacets = new LinkedHashMap<>();
+    private Map<Long, Integer> userFacets = new LinkedHashMap<>();
+}
@@ -0,0 +1,22 @@
+package com.finconsgroup.com.zoo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AssignmentRunDto {
+
+    private boolean dryRun;
+    private int unassignedTickets;
+    private int operators;
+    private int assigned;
+    private int conflicts;
+    private long durationMillis;
+    private List<TicketAssignmentDto> assignments = new ArrayList<>();
+}
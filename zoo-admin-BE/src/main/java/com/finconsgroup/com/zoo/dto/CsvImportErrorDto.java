@@ -0,0 +1,14 @@
+package com.finconsgroup.com.zoo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CsvImportErrorDto {
+
+    private long line;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.finconsgroup.com.zoo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CsvImportReportDto {
+
+    private long imported;
+    private long rejected;
+    // only the first rejected rows are detailed, so the report stays small for huge files
+    private List<CsvImportErrorDto> errors = new ArrayList<>();
+}
@@ -15,6 +15,7 @@ public class EnclosureDtoInput {
     private Long id;
     private String name;
     private Double area;
+    private Integer maxAnimals;
     private String description;
     private Long user;
     private List<Long> animals = new ArrayList<>();
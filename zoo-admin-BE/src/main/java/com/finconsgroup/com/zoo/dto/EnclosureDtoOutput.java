@@ -1,5 +1,6 @@
 package com.finconsgroup.com.zoo.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,11 +11,13 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(FieldSelection.ENCLOSURE_FILTER)
 public class EnclosureDtoOutput {
 
     private Long id;
     private String name;
     private Double area;
+    private Integer maxAnimals;
     private String description;
     private Long user;
     private List<AnimalDto> animals = new ArrayList<>();
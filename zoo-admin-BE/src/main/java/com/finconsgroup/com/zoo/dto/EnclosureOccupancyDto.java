@@ -0,0 +1,22 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EnclosureOccupancyDto {
+
+    private Long enclosure;
+    private Double area;
+    private Integer maxAnimals;
+    private int animals;
+    private double requiredArea;
+    private Map<AnimalCategory, Integer> byCategory = new EnumMap<>(AnimalCategory.class);
+}
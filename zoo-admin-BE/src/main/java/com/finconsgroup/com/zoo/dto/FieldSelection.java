@@ -0,0 +1,103 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.finconsgroup.com.zoo.exception.InvalidInputException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+public class FieldSelection {
+
+    public static final String ANIMAL_FILTER = "animalFields";
+    public static final String ENCLOSURE_FILTER = "enclosureFields";
+    public static final String USER_FILTER = "userFields";
+    public static final String TICKET_FILTER = "ticketFields";
+
+    private static final FieldSelection ALL = new FieldSelection(null, null);
+    private static final FieldSelection UNEXPANDED = new FieldSelection(null, Set.of());
+
+    // null means "not specified": every field / the default expansions
+    private final Set<String> fields;
+    private final Set<String> expand;
+
+    private FieldSelection(Set<String> fields, Set<String> expand) {
+        this.fields = fields;
+        this.expand = expand;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    // every field, without loading any relation
+    public static FieldSelection unexpanded() {
+        return UNEXPANDED;
+    }
+
+    public static FieldSelection of(String fields, String expand, Set<String> expandable) {
+        Set<String> expandSet = parse(expand);
+        if (expandSet != null) {
+            expandSet.stream()
+                    .filter(e -> !expandable.contains(e))
+                    .findFirst()
+                    .ifPresent(e -> {
+                        throw new InvalidInputException("Relazione non espandibile: " + e);
+                    });
+        }
+
+        Set<String> fieldSet = parse(fields);
+        if (fieldSet == null && expandSet == null) {
+            return ALL;
+        }
+        return new FieldSelection(fieldSet, expandSet);
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * Whether a relation must be loaded: it has to be part of the requested fields
+     * and either listed in expand, or expanded by default when expand is absent.
+     */
+    public boolean loads(String relation, boolean expandedByDefault) {
+        if (!includes(relation)) {
+            return false;
+        }
+        return expand == null ? expandedByDefault : expand.contains(relation);
+    }
+
+    public MappingJacksonValue wrap(Object body, String filterId) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+
+        SimpleFilterProvider filters = new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+        if (fields != null) {
+            filters.addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+        }
+        value.setFilters(filters);
+
+        return value;
+    }
+
+    public String key() {
+        return (fields == null ? "*" : String.join(",", fields)) + "|" + (expand == null ? "*" : String.join(",", expand));
+    }
+
+    private static Set<String> parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isBlank()) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
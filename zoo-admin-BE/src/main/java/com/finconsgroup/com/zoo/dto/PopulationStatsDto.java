@@ -0,0 +1,21 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PopulationStatsDto {
+
+    private WeightStatsDto overall;
+    private Map<AnimalCategory, WeightStatsDto> byCategory = new EnumMap<>(AnimalCategory.class);
+    private Map<Long, WeightStatsDto> byEnclosure = new TreeMap<>();
+    private long durationMicros;
+}
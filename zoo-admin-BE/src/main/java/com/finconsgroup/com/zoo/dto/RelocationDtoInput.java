@@ -0,0 +1,17 @@
+package com.finconsgroup.com.zoo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelocationDtoInput {
+
+    private List<Long> animals = new ArrayList<>();
+    private Long enclosure;
+}
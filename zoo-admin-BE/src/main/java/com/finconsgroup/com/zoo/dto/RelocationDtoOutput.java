@@ -0,0 +1,19 @@
+package com.finconsgroup.com.zoo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelocationDtoOutput {
+
+    private Long enclosure;
+    private int relocated;
+    // target first, then every enclosure the animals left
+    private List<EnclosureOccupancyDto> occupancy = new ArrayList<>();
+}
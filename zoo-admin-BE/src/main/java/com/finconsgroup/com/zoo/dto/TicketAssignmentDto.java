@@ -0,0 +1,18 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketAssignmentDto {
+
+    private Long ticket;
+    private Long user;
+    private TicketUrgency ticketUrgency;
+    private OperatorType recommendedRole;
+}
@@ -3,6 +3,7 @@ package com.finconsgroup.com.zoo.dto;
 import com.finconsgroup.com.zoo.enums.OperatorType;
 import com.finconsgroup.com.zoo.enums.Role;
 import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,7 @@ import java.time.LocalDate;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(FieldSelection.TICKET_FILTER)
 public class TicketDto {
 
     private Long id;
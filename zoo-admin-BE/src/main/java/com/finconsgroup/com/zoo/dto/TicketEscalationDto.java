@@ -0,0 +1,16 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketEscalationDto {
+
+    private Long ticket;
+    private TicketUrgency from;
+    private TicketUrgency to;
+}
@@ -2,6 +2,7 @@ package com.finconsgroup.com.zoo.dto;
 
 import com.finconsgroup.com.zoo.enums.OperatorType;
 import com.finconsgroup.com.zoo.enums.Role;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,7 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(FieldSelection.USER_FILTER)
 public class UserDtoOutput {
 
     private Long id;
@@ -0,0 +1,20 @@
+package com.finconsgroup.com.zoo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WeightBucketDto {
+
+    private Instant from;
+    private Instant to;
+    private int count;
+    private double min;
+    private double max;
+    private double avg;
+}
@@ -0,0 +1,17 @@
+package com.finconsgroup.com.zoo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WeightMeasurementDto {
+
+    private Long animal;
+    private Instant measuredAt;
+    private Double weight;
+}
@@ -0,0 +1,24 @@
+package com.finconsgroup.com.zoo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WeightStatsDto {
+
+    private int count;
+    // animals with a recorded weight; the weight figures cover only these
+    private int weighed;
+    private Double mean;
+    // population variance
+    private Double variance;
+    private Double min;
+    private Double max;
+    private Map<String, Double> percentiles = new LinkedHashMap<>();
+}
@@ -0,0 +1,19 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WorkloadDto {
+
+    private Long user;
+    private int open;
+    private Map<TicketUrgency, Integer> byUrgency = new EnumMap<>(TicketUrgency.class);
+}
@@ -0,0 +1,26 @@
+package com.finconsgroup.com.zoo.dto;
+
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ZooSummaryDto {
+
+    private long animals;
+    private Map<AnimalCategory, Long> animalsByCategory = new EnumMap<>(AnimalCategory.class);
+    private long enclosures;
+    private long users;
+    private Map<Role, Long> usersByRole = new EnumMap<>(Role.class);
+    private Map<OperatorType, Long> operatorsByType = new EnumMap<>(OperatorType.class);
+    private Instant computedAt;
+}
@@ -1,13 +1,18 @@
 package com.finconsgroup.com.zoo.entity;
 
+import com.finconsgroup.com.zoo.converter.AnimalCategoryConverter;
 import com.finconsgroup.com.zoo.enums.AnimalCategory;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
 @Entity
 @Table(name = "animals")
+@SQLRestriction("NOT deleted")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -18,15 +23,22 @@ public class Animal {
     private Long id;
     private String name;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = AnimalCategoryConverter.class)
     private AnimalCategory category;
     private Double weight;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "enclosure_id")
     private Enclosure enclosure;
+
+    @TenantId
+    @PartitionKey
+    @Column(name = "site_id")
+    private Long site;
+
+    private boolean deleted;
 }
@@ -0,0 +1,61 @@
+package com.finconsgroup.com.zoo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "animal_weight_chunks")
+@AllArgsConstructor
+@Getter
+@Setter
+@NoArgsConstructor
+public class AnimalWeightChunk implements Persistable<AnimalWeightChunkId> {
+
+    @EmbeddedId
+    private AnimalWeightChunkId id;
+
+    @Column(name = "first_at", nullable = false)
+    private Instant firstAt;
+
+    @Column(name = "last_at", nullable = false)
+    private Instant lastAt;
+
+    @Column(nullable = false)
+    private int samples;
+
+    @Column(name = "min_weight", nullable = false)
+    private double minWeight;
+
+    @Column(name = "max_weight", nullable = false)
+    private double maxWeight;
+
+    @Column(name = "sum_weight", nullable = false)
+    private double sumWeight;
+
+    @Column(nullable = false)
+    private byte[] timestamps;
+
+    @Column(nullable = false)
+    private byte[] weights;
+
+    // lets save() persist new chunks directly instead of probing for them first
+    @Transient
+    private boolean created;
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        created = false;
+    }
+}
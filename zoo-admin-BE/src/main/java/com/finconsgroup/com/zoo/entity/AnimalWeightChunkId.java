@@ -0,0 +1,23 @@
+package com.finconsgroup.com.zoo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimalWeightChunkId implements Serializable {
+
+    @Column(name = "animal_id")
+    private Long animalId;
+
+    @Column(name = "chunk_start")
+    private Instant chunkStart;
+}
@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "enclosures")
+@SQLRestriction("NOT deleted")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -20,12 +23,19 @@ public class Enclosure {
     private Long id;
     private String name;
     private Double area;
+    private Integer maxAnimals;
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    @TenantId
+    @Column(name = "site_id")
+    private Long site;
+
+    private boolean deleted;
+
     @OneToMany(mappedBy = "enclosure")
     private List<Animal> animals = new ArrayList<>();
 }
@@ -1,5 +1,7 @@
 package com.finconsgroup.com.zoo.entity;
 
+import com.finconsgroup.com.zoo.converter.OperatorTypeConverter;
+import com.finconsgroup.com.zoo.converter.TicketUrgencyConverter;
 import com.finconsgroup.com.zoo.enums.OperatorType;
 import com.finconsgroup.com.zoo.enums.Role;
 import com.finconsgroup.com.zoo.enums.TicketUrgency;
@@ -8,11 +10,16 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
 @Table(name="tickets")
+@SQLRestriction("NOT deleted")
 @AllArgsConstructor
 @Getter
 @Setter
@@ -26,11 +33,11 @@ public class Ticket {
     private String title;
 
     @JoinColumn(name = "ticket_urgency")
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = TicketUrgencyConverter.class)
     private TicketUrgency ticketUrgency ;
 
     @JoinColumn(name = "recommended_role")
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = OperatorTypeConverter.class)
     private OperatorType recommendedRole ;
 
     @JoinColumn
@@ -38,7 +45,17 @@ public class Ticket {
 
     private String description;
 
-    @ManyToOne
+    @Column(name = "urgency_since")
+    private Instant urgencySince;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_user_id", nullable = true)
     private User user;
+
+    @TenantId
+    @PartitionKey
+    @Column(name = "site_id")
+    private Long site;
+
+    private boolean deleted;
 }
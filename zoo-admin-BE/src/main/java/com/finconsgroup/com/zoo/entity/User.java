@@ -1,15 +1,20 @@
 package com.finconsgroup.com.zoo.entity;
 
+import com.finconsgroup.com.zoo.converter.OperatorTypeConverter;
+import com.finconsgroup.com.zoo.converter.RoleConverter;
 import com.finconsgroup.com.zoo.enums.OperatorType;
 import com.finconsgroup.com.zoo.enums.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@SQLRestriction("NOT deleted")
 @AllArgsConstructor
 @Getter
 @Setter
@@ -32,13 +37,19 @@ public class User {
     @Column(nullable = false)
     private String password;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = RoleConverter.class)
     private Role role;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = OperatorTypeConverter.class)
     @Column(name = "operator_type", nullable = true)
     private OperatorType operatorType;
 
+    @TenantId
+    @Column(name = "site_id")
+    private Long site;
+
+    private boolean deleted;
+
     @OneToMany(mappedBy = "user")
     private List<Animal> animals = new ArrayList<>();
 
@@ -1,20 +1,27 @@
 package com.finconsgroup.com.zoo.enums;
 
-public enum AnimalCategory {
-    MAMMAL("Mammal"),
-    BIRD("Bird"),
-    REPTILE("Reptile"),
-    AMPHIBIAN("Amphibian"),
-    FISH("Fish"),
-    INSECT("Insect");
+public enum AnimalCategory implements CodedEnum {
+    MAMMAL("Mammal", (short) 1),
+    BIRD("Bird", (short) 2),
+    REPTILE("Reptile", (short) 3),
+    AMPHIBIAN("Amphibian", (short) 4),
+    FISH("Fish", (short) 5),
+    INSECT("Insect", (short) 6);
 
     private final String category;
+    private final short code;
 
-    AnimalCategory(String category) {
+    AnimalCategory(String category, short code) {
         this.category = category;
+        this.code = code;
     }
 
     public String getCategory() {
         return category;
     }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
 }
@@ -0,0 +1,27 @@
+package com.finconsgroup.com.zoo.enums;
+
+public enum AuditAction {
+    CREATE((byte) 1),
+    UPDATE((byte) 2),
+    DELETE((byte) 3),
+    ASSIGN((byte) 4);
+
+    private final byte code;
+
+    AuditAction(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static AuditAction fromCode(byte code) {
+        for (AuditAction action : values()) {
+            if (action.code == code) {
+                return action;
+            }
+        }
+        throw new IllegalArgumentException("Azione di audit sconosciuta: " + code);
+    }
+}
@@ -0,0 +1,22 @@
+package com.finconsgroup.com.zoo.enums;
+
+/**
+ * Enum stored as a small integer. Codes are part of the schema: once assigned they
+ * never change or get reused, whatever the order of the constants.
+ */
+public interface CodedEnum {
+
+    short getCode();
+
+    static <E extends Enum<E> & CodedEnum> E fromCode(Class<E> type, Short code) {
+        if (code == null) {
+            return null;
+        }
+        for (E value : type.getEnumConstants()) {
+            if (value.getCode() == code) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Codice sconosciuto per " + type.getSimpleName() + ": " + code);
+    }
+}
@@ -0,0 +1,8 @@
+package com.finconsgroup.com.zoo.enums;
+
+public enum EndpointClass {
+    DASHBOARD,
+    LIST,
+    READ,
+    WRITE
+}
@@ -0,0 +1,27 @@
+package com.finconsgroup.com.zoo.enums;
+
+public enum EntityType {
+    ANIMAL((byte) 1),
+    ENCLOSURE((byte) 2),
+    USER((byte) 3),
+    TICKET((byte) 4);
+
+    private final byte code;
+
+    EntityType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static EntityType fromCode(byte code) {
+        for (EntityType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Tipo di entità sconosciuto: " + code);
+    }
+}
@@ -1,17 +1,24 @@
 package com.finconsgroup.com.zoo.enums;
 
-public enum OperatorType {
-    ZOOKEEPER("zookeeper"),
-    VETERINARIAN("veterinarian"),
-    SECURITY_GUARD("security guard");
+public enum OperatorType implements CodedEnum {
+    ZOOKEEPER("zookeeper", (short) 1),
+    VETERINARIAN("veterinarian", (short) 2),
+    SECURITY_GUARD("security guard", (short) 3);
 
     private final String operatorType;
+    private final short code;
 
-    OperatorType(String operatorType) {
+    OperatorType(String operatorType, short code) {
         this.operatorType = operatorType;
+        this.code = code;
     }
 
     public String getOperatorType() {
         return operatorType;
     }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
 }
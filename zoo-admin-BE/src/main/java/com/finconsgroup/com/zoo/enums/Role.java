@@ -1,17 +1,24 @@
 package com.finconsgroup.com.zoo.enums;
 
-public enum Role {
-    ADMIN("admin"),
-    MANAGER("manager"),
-    OPERATOR("operator");
+public enum Role implements CodedEnum {
+    ADMIN("admin", (short) 1),
+    MANAGER("manager", (short) 2),
+    OPERATOR("operator", (short) 3);
 
     private final String role;
+    private final short code;
 
-    Role(String role) {
+    Role(String role, short code) {
         this.role = role;
+        this.code = code;
     }
 
     public String getRole() {
         return role;
     }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
 }
@@ -1,13 +1,17 @@
 package com.finconsgroup.com.zoo.enums;
 
-public enum TicketUrgency {
-    BASSO("basso"),
-    MEDIO("medio"),
-    ALTO("alto");
+public enum TicketUrgency implements CodedEnum {
+    BASSO("basso", (short) 1),
+    MEDIO("medio", (short) 2),
+    ALTO("alto", (short) 3);
 
     private final String TicketUrgency;
+    private final short code;
 
-    TicketUrgency(String TicketUrgency) {this.TicketUrgency = TicketUrgency;}
+    TicketUrgency(String TicketUrgency, short code) {this.TicketUrgency = TicketUrgency; this.code = code;}
 
     public String getTicketUrgency() {return TicketUrgency;}
+
+    @Override
+    public short getCode() {return code;}
 }
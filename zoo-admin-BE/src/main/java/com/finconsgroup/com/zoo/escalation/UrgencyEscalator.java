@@ -0,0 +1,272 @@
+package com.finconsgroup.com.zoo.escalation;
+
+import com.finconsgroup.com.zoo.audit.AuditTrail;
+import com.finconsgroup.com.zoo.concurrency.TimingWheel;
+import com.finconsgroup.com.zoo.concurrency.TimingWheel.Timeout;
+import com.finconsgroup.com.zoo.config.EscalationProperties;
+import com.finconsgroup.com.zoo.dto.TicketEscalationDto;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import com.finconsgroup.com.zoo.event.TicketsChangedEvent;
+import com.finconsgroup.com.zoo.outbox.Outbox;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Raises the urgency of tickets left unassigned past their deadline. Deadlines live
+ * in a timing wheel filled from the tickets table on startup and kept current by
+ * the ticket write paths, so no periodic table scan is needed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UrgencyEscalator {
+
+    private static final String PENDING =
+            "SELECT id, recommended_role, ticket_urgency, urgency_since FROM tickets " +
+            "WHERE assigned_user_id IS NULL AND NOT deleted AND ticket_urgency IN (" +
+            TicketUrgency.BASSO.getCode() + ", " + TicketUrgency.MEDIO.getCode() + ")";
+
+    // the guards skip tickets assigned or re-prioritised since they were scheduled
+    private static final String ESCALATE =
+            "UPDATE tickets t SET ticket_urgency = e.next_urgency, urgency_since = now() " +
+            "FROM unnest(?::bigint[], ?::smallint[], ?::smallint[]) AS e(id, current_urgency, next_urgency) " +
+            "WHERE t.id = e.id AND t.assigned_user_id IS NULL AND NOT t.deleted AND t.ticket_urgency = e.current_urgency " +
+            "RETURNING t.id, t.recommended_role, t.ticket_urgency, t.urgency_since, t.site_id";
+
+    private static final String TICKETS =
+            "SELECT id, recommended_role, ticket_urgency, urgency_since, assigned_user_id FROM tickets " +
+            "WHERE id = ANY(?::bigint[]) AND NOT deleted";
+
+    private static final TicketUrgency[] URGENCIES = TicketUrgency.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditTrail auditTrail;
+    private final Outbox outbox;
+    private final EscalationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Timeout<Pending>> scheduled = new ConcurrentHashMap<>();
+    private final Queue<Pending> due = new ConcurrentLinkedQueue<>();
+    private TimingWheel<Pending> wheel;
+
+    @PostConstruct
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        wheel = new TimingWheel<>(properties.getTick().toMillis(), properties.getWheelSize(), System.currentTimeMillis());
+        loadPending();
+        log.info("Scadenze di escalation caricate per {} ticket", scheduled.size());
+    }
+
+    /**
+     * Reschedules every pending ticket and drops the rest, after writes by other
+     * nodes may have gone unseen.
+     */
+    public void resync() {
+        if (wheel == null) {
+            return;
+        }
+        Set<Long> pending = loadPending();
+        new ArrayList<>(scheduled.keySet()).stream().filter(id -> !pending.contains(id)).forEach(this::cancel);
+    }
+
+    /**
+     * Reschedules the given tickets from their stored state, for writes made by
+     * another node.
+     */
+    public void refresh(Collection<Long> ticketIds) {
+        if (wheel == null || ticketIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(ticketIds);
+        jdbcTemplate.query(TICKETS, rs -> {
+            long id = rs.getLong(1);
+            missing.remove(id);
+            if (rs.getObject(5) != null) {
+                cancel(id);
+                return;
+            }
+            Timestamp since = rs.getTimestamp(4);
+            schedule(id,
+                    CodedEnum.fromCode(OperatorType.class, rs.getObject(2, Short.class)),
+                    CodedEnum.fromCode(TicketUrgency.class, rs.getObject(3, Short.class)),
+                    since != null ? since.toInstant() : Instant.now());
+        }, (Object) ticketIds.toArray(Long[]::new));
+        missing.forEach(this::cancel);
+    }
+
+    /**
+     * (Re)starts the deadline of an unassigned ticket once the caller's transaction
+     * commits.
+     */
+    public void track(Long ticketId, OperatorType role, TicketUrgency urgency, Instant since) {
+        if (wheel != null) {
+            afterCommit(() -> schedule(ticketId, role, urgency, since));
+        }
+    }
+
+    public void untrack(Long ticketId) {
+        if (wheel != null) {
+            afterCommit(() -> cancel(ticketId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${zoo.escalation.tick:1s}")
+    public void tick() {
+        if (wheel == null) {
+            return;
+        }
+
+        wheel.advance(System.currentTimeMillis(), this::expired);
+
+        try {
+            List<Pending> batch = new ArrayList<>();
+            Pending pending;
+            while ((pending = due.poll()) != null) {
+                batch.add(pending);
+                if (batch.size() == properties.getBatchSize()) {
+                    escalate(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                escalate(batch);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Escalation dei ticket fallita", e);
+        }
+    }
+
+    private void escalate(List<Pending> batch) {
+        Long[] ids = new Long[batch.size()];
+        Short[] current = new Short[batch.size()];
+        Short[] next = new Short[batch.size()];
+        Map<Long, Pending> byId = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            ids[i] = pending.ticketId();
+            current[i] = pending.urgency().getCode();
+            next[i] = URGENCIES[pending.urgency().ordinal() + 1].getCode();
+            byId.put(pending.ticketId(), pending);
+        }
+
+        List<TicketEscalationDto> escalated;
+        try {
+            escalated = transactionTemplate.execute(status -> apply(ids, current, next, byId));
+        } catch (RuntimeException e) {
+            due.addAll(batch);
+            throw e;
+        }
+
+        if (escalated != null && !escalated.isEmpty()) {
+            log.info("Urgenza aumentata per {} ticket non assegnati", escalated.size());
+        }
+    }
+
+    private List<TicketEscalationDto> apply(Long[] ids, Short[] current, Short[] next, Map<Long, Pending> byId) {
+        List<TicketEscalationDto> applied = new ArrayList<>();
+        jdbcTemplate.query(ESCALATE, rs -> {
+            long id = rs.getLong(1);
+            TicketUrgency urgency = CodedEnum.fromCode(TicketUrgency.class, rs.getShort(3));
+            applied.add(new TicketEscalationDto(id, byId.get(id).urgency(), urgency));
+            auditTrail.record(EntityType.TICKET, AuditAction.UPDATE, id, rs.getLong(5));
+            track(id, CodedEnum.fromCode(OperatorType.class, rs.getObject(2, Short.class)), urgency, rs.getTimestamp(4).toInstant());
+        }, ids, current, next);
+        outbox.publishAll(EntityType.TICKET, AuditAction.UPDATE, applied, TicketEscalationDto::getTicket);
+        if (!applied.isEmpty()) {
+            eventPublisher.publishEvent(new TicketsChangedEvent(
+                    applied.stream().map(TicketEscalationDto::getTicket).toList(), List.of()));
+        }
+        return applied;
+    }
+
+    private Set<Long> loadPending() {
+        Set<Long> pending = new HashSet<>();
+        jdbcTemplate.query(PENDING, rs -> {
+            Timestamp since = rs.getTimestamp(4);
+            pending.add(rs.getLong(1));
+            schedule(rs.getLong(1),
+                    CodedEnum.fromCode(OperatorType.class, rs.getObject(2, Short.class)),
+                    CodedEnum.fromCode(TicketUrgency.class, rs.getShort(3)),
+                    since != null ? since.toInstant() : Instant.now());
+        });
+        return pending;
+    }
+
+    private void schedule(Long ticketId, OperatorType role, TicketUrgency urgency, Instant since) {
+        Duration deadline = urgency != null && urgency.ordinal() < URGENCIES.length - 1
+                ? properties.deadline(role, urgency)
+                : null;
+        if (deadline == null) {
+            cancel(ticketId);
+            return;
+        }
+
+        Pending pending = new Pending(ticketId, urgency);
+        Timeout<Pending> timeout = wheel.schedule(pending, since.plus(deadline).toEpochMilli());
+        Timeout<Pending> previous = timeout != null ? scheduled.put(ticketId, timeout) : scheduled.remove(ticketId);
+        if (previous != null) {
+            previous.cancel();
+        }
+        if (timeout == null) {
+            due.add(pending);
+        }
+    }
+
+    private void expired(Pending pending) {
+        scheduled.computeIfPresent(pending.ticketId(), (id, timeout) -> timeout.payload() == pending ? null : timeout);
+        due.add(pending);
+    }
+
+    private void cancel(Long ticketId) {
+        Timeout<Pending> timeout = scheduled.remove(ticketId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Pending(long ticketId, TicketUrgency urgency) {
+    }
+}
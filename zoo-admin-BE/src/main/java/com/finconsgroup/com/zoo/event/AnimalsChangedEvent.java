@@ -0,0 +1,24 @@
+package com.finconsgroup.com.zoo.event;
+
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+
+import java.util.List;
+
+/**
+ * Animals written by a transaction, for the in-memory views derived from them.
+ * {@code reload} marks bulk writes that do not list the animals they touched.
+ */
+public record AnimalsChangedEvent(List<AnimalDto> changed, List<Long> removed, boolean reload) {
+
+    public static AnimalsChangedEvent changed(List<AnimalDto> animals) {
+        return new AnimalsChangedEvent(List.copyOf(animals), List.of(), false);
+    }
+
+    public static AnimalsChangedEvent removed(Long id) {
+        return new AnimalsChangedEvent(List.of(), List.of(id), false);
+    }
+
+    public static AnimalsChangedEvent reloadAll() {
+        return new AnimalsChangedEvent(List.of(), List.of(), true);
+    }
+}
@@ -0,0 +1,10 @@
+package com.finconsgroup.com.zoo.event;
+
+import com.finconsgroup.com.zoo.enums.EntityType;
+
+/**
+ * An enclosure or user created, updated or deleted by a transaction. Animal writes
+ * are published as {@link AnimalsChangedEvent}.
+ */
+public record EntityChangedEvent(EntityType type, Long id) {
+}
@@ -0,0 +1,4 @@
+package com.finconsgroup.com.zoo.event;
+
+public record TicketCreatedEvent(Long ticketId) {
+}
@@ -0,0 +1,17 @@
+package com.finconsgroup.com.zoo.event;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Tickets written by a transaction, with the users whose open tickets changed:
+ * the previous and the new assignee of each.
+ */
+public record TicketsChangedEvent(List<Long> tickets, List<Long> users) {
+
+    public static TicketsChangedEvent of(Long ticket, Long... users) {
+        return new TicketsChangedEvent(List.of(ticket),
+                Arrays.stream(users).filter(Objects::nonNull).distinct().toList());
+    }
+}
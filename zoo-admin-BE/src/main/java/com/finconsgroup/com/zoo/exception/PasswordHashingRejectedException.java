@@ -0,0 +1,14 @@
+package com.finconsgroup.com.zoo.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * The password hashing queue is full. An authentication exception, so the security
+ * filters turn it into a 503 wherever it is thrown.
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
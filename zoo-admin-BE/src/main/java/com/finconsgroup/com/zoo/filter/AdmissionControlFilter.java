@@ -0,0 +1,115 @@
+package com.finconsgroup.com.zoo.filter;
+
+import com.finconsgroup.com.zoo.concurrency.TokenBucket;
+import com.finconsgroup.com.zoo.config.AdmissionProperties;
+import com.finconsgroup.com.zoo.enums.EndpointClass;
+import com.finconsgroup.com.zoo.enums.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load per authenticated user and endpoint class before a request can
+ * reach a service and take a pooled connection. Limits are configured per
+ * {@link Role} under zoo.admission.limits.
+ */
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionProperties admissionProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Role role = admissionProperties.isEnabled() ? roleOf(authentication) : null;
+
+        if (role != null) {
+            EndpointClass endpointClass = classify(request);
+            AdmissionProperties.Limit limit = admissionProperties.getLimits()
+                    .getOrDefault(role, Map.of())
+                    .get(endpointClass);
+
+            if (limit != null && limit.getRate() > 0) {
+                TokenBucket bucket = buckets.computeIfAbsent(authentication.getName() + ":" + endpointClass,
+                        k -> new TokenBucket(limit.getRate(), limit.getBurst()));
+
+                long waitNanos = bucket.tryAcquire(System.nanoTime());
+                if (waitNanos > 0) {
+                    reject(response, role, endpointClass, waitNanos);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, Role role, EndpointClass endpointClass, long waitNanos)
+            throws IOException {
+        Counter.builder("zoo.admission.rejected")
+                .tag("role", role.name())
+                .tag("endpoint", endpointClass.name())
+                .register(meterRegistry)
+                .increment();
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"Troppe richieste, riprovare tra "
+                + retryAfterSeconds + " secondi\"}");
+    }
+
+    private Role roleOf(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            for (Role role : Role.values()) {
+                if (role.name().equals(authority.getAuthority())) {
+                    return role;
+                }
+            }
+        }
+        return null;
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return EndpointClass.WRITE;
+        }
+
+        String uri = request.getRequestURI();
+        if (uri.equals("/api/ticket/dashboard") || uri.equals("/api/ticket/my-tickets") || uri.equals("/api/ticket/workload")
+                || uri.equals("/api/animal/stats") || uri.equals("/api/summary")) {
+            return EndpointClass.DASHBOARD;
+        }
+        if (uri.endsWith("/list") || uri.equals("/api/animal/export") || uri.equals("/api/ticket/all") || uri.equals("/api/ticket/assignment/preview")) {
+            return EndpointClass.LIST;
+        }
+        return EndpointClass.READ;
+    }
+}
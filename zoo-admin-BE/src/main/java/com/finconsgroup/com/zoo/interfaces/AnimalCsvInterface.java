@@ -0,0 +1,12 @@
+package com.finconsgroup.com.zoo.interfaces;
+
+import com.finconsgroup.com.zoo.dto.CsvImportReportDto;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface AnimalCsvInterface {
+
+    CsvImportReportDto importCsv(InputStream csv);
+    void exportCsv(OutputStream out);
+}
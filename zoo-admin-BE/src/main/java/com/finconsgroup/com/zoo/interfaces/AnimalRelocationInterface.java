@@ -0,0 +1,9 @@
+package com.finconsgroup.com.zoo.interfaces;
+
+import com.finconsgroup.com.zoo.dto.RelocationDtoInput;
+import com.finconsgroup.com.zoo.dto.RelocationDtoOutput;
+
+public interface AnimalRelocationInterface {
+
+    RelocationDtoOutput relocate(RelocationDtoInput relocationDtoInput);
+}
@@ -0,0 +1,9 @@
+package com.finconsgroup.com.zoo.interfaces;
+
+import com.finconsgroup.com.zoo.dto.AnimalSearchDtoInput;
+import com.finconsgroup.com.zoo.dto.AnimalSearchDtoOutput;
+
+public interface AnimalSearchInterface {
+
+    AnimalSearchDtoOutput search(AnimalSearchDtoInput criteria);
+}
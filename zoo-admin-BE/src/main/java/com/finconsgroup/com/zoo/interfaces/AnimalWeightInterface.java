@@ -0,0 +1,18 @@
+package com.finconsgroup.com.zoo.interfaces;
+
+import com.finconsgroup.com.zoo.dto.WeightBucketDto;
+import com.finconsgroup.com.zoo.dto.WeightMeasurementDto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public interface AnimalWeightInterface {
+
+    int ingest(List<WeightMeasurementDto> measurements);
+    void recordWeight(Long animalId, Instant measuredAt, Double weight);
+    void recordWeights(Map<Long, Double> weights, Instant measuredAt);
+    List<WeightMeasurementDto> findMeasurements(Long animalId, Instant from, Instant to);
+    List<WeightBucketDto> downsample(Long animalId, Instant from, Instant to, Duration bucket);
+}
@@ -2,13 +2,14 @@ package com.finconsgroup.com.zoo.interfaces;
 
 import com.finconsgroup.com.zoo.dto.EnclosureDtoInput;
 import com.finconsgroup.com.zoo.dto.EnclosureDtoOutput;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
 
 import java.util.List;
 
 public interface EnclosureInterface {
     EnclosureDtoOutput addEnclosure(EnclosureDtoInput enclosureDtoInput);
-    EnclosureDtoOutput findById(Long id);
-    List<EnclosureDtoOutput> findAll();
+    EnclosureDtoOutput findById(Long id, FieldSelection selection);
+    List<EnclosureDtoOutput> findAll(FieldSelection selection);
     EnclosureDtoOutput updateById(Long id, EnclosureDtoInput enclosureDtoInput);
     EnclosureDtoOutput deleteEnclosure(Long id);
 }
\ No newline at end of file
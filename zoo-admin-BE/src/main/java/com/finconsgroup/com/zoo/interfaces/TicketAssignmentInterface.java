@@ -0,0 +1,9 @@
+package com.finconsgroup.com.zoo.interfaces;
+
+import com.finconsgroup.com.zoo.dto.AssignmentRunDto;
+
+public interface TicketAssignmentInterface {
+
+    AssignmentRunDto preview();
+    AssignmentRunDto run();
+}
@@ -1,6 +1,7 @@
 package com.finconsgroup.com.zoo.interfaces;
 
 import com.finconsgroup.com.zoo.dto.TicketDto;
+import com.finconsgroup.com.zoo.dto.WorkloadDto;
 
 import java.util.List;
 
@@ -16,6 +17,9 @@ public interface TicketInterface {
     List<TicketDto> getMyAssignedTickets();
 
     TicketDto assignTicketToCurrentUser(Long ticketId);
+    TicketDto claimNextTicket();
+
+    List<WorkloadDto> getWorkload();
 
 
 }
@@ -1,5 +1,6 @@
 package com.finconsgroup.com.zoo.interfaces;
 
+import com.finconsgroup.com.zoo.dto.FieldSelection;
 import com.finconsgroup.com.zoo.dto.UserDtoInput;
 import com.finconsgroup.com.zoo.dto.UserDtoOutput;
 import com.finconsgroup.com.zoo.entity.User;
@@ -9,8 +10,8 @@ import java.util.List;
 public interface UserInterface {
 
     UserDtoOutput addUser(UserDtoInput userDtoInput);
-    UserDtoOutput findUserById(Long id);
-    List<UserDtoOutput> findAll();
+    UserDtoOutput findUserById(Long id, FieldSelection selection);
+    List<UserDtoOutput> findAll(FieldSelection selection);
     UserDtoOutput updateUserById(Long id, UserDtoInput userDtoInput);
     UserDtoOutput deleteUser(Long id);
 }
@@ -0,0 +1,8 @@
+package com.finconsgroup.com.zoo.interfaces;
+
+import com.finconsgroup.com.zoo.dto.ZooSummaryDto;
+
+public interface ZooSummaryInterface {
+
+    ZooSummaryDto getSummary();
+}
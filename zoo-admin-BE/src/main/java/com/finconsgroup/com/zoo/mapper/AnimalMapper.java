@@ -36,6 +36,8 @@ public class AnimalMapper {
 
         if (animal.getEnclosure() != null) animalDto.setEnclosure(animal.getEnclosure().getId());
 
+        animalDto.setSite(animal.getSite());
+
         return animalDto;
     }
 
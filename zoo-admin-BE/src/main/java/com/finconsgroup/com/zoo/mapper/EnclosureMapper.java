@@ -3,6 +3,7 @@ package com.finconsgroup.com.zoo.mapper;
 import com.finconsgroup.com.zoo.dto.AnimalDto;
 import com.finconsgroup.com.zoo.dto.EnclosureDtoInput;
 import com.finconsgroup.com.zoo.dto.EnclosureDtoOutput;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
 import com.finconsgroup.com.zoo.entity.Animal;
 import com.finconsgroup.com.zoo.entity.Enclosure;
 import com.finconsgroup.com.zoo.entity.User;
@@ -24,6 +25,10 @@ public class EnclosureMapper {
     private final AnimalMapper animalMapper;
 
     public EnclosureDtoOutput toDto(Enclosure enclosure){
+        return toDto(enclosure, FieldSelection.all());
+    }
+
+    public EnclosureDtoOutput toDto(Enclosure enclosure, FieldSelection selection){
         if (enclosure != null){
 
             EnclosureDtoOutput enclosureDto = new EnclosureDtoOutput();
@@ -31,6 +36,7 @@ public class EnclosureMapper {
             enclosureDto.setId(enclosure.getId());
             enclosureDto.setName(enclosure.getName());
             enclosureDto.setArea(enclosure.getArea());
+            enclosureDto.setMaxAnimals(enclosure.getMaxAnimals());
             enclosureDto.setDescription(enclosure.getDescription());
 
             if (enclosure.getUser() != null) {
@@ -39,7 +45,9 @@ public class EnclosureMapper {
                 throw new InvalidInputException("L'elemento user non è valido");
             }
 
-            if (!enclosure.getAnimals().isEmpty()){
+            if (!selection.loads("animals", true)) {
+                enclosureDto.setAnimals(null);
+            } else if (!enclosure.getAnimals().isEmpty()){
                 List<AnimalDto> animalDtos = new ArrayList<>();
                 enclosure.getAnimals().forEach(a ->
                     animalDtos.add(animalMapper.toAnimalDto(a)));
@@ -61,6 +69,7 @@ public class EnclosureMapper {
             enclosureDto.setId(enclosure.getId());
             enclosureDto.setName(enclosure.getName());
             enclosureDto.setArea(enclosure.getArea());
+            enclosureDto.setMaxAnimals(enclosure.getMaxAnimals());
             enclosureDto.setDescription(enclosure.getDescription());
 
             if (enclosure.getUser() != null) {
@@ -90,6 +99,7 @@ public class EnclosureMapper {
 
         enclosure.setName(enclosureDto.getName());
         enclosure.setArea(enclosureDto.getArea());
+        enclosure.setMaxAnimals(enclosureDto.getMaxAnimals());
         enclosure.setDescription(enclosureDto.getDescription());
         enclosure.setUser(user);
         enclosure.setAnimals(animals);
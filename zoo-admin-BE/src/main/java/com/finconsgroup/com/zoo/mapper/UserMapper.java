@@ -17,8 +17,13 @@ public class UserMapper {
 
     private final AnimalMapper animalMapper;
     private final EnclosureMapper enclosureMapper;
+    private final TicketMapper ticketMapper;
 
     public UserDtoOutput toDto(User user){
+        return toDto(user, FieldSelection.all());
+    }
+
+    public UserDtoOutput toDto(User user, FieldSelection selection){
 
         if (user == null) return null;
         UserDtoOutput userDtoOutput = new UserDtoOutput();
@@ -30,7 +35,9 @@ public class UserMapper {
         userDtoOutput.setRole(user.getRole());
         userDtoOutput.setOperatorType(user.getOperatorType());
 
-        if (user.getAnimals() != null && !user.getAnimals().isEmpty()) {
+        if (!selection.loads("animals", true)) {
+            userDtoOutput.setAnimals(null);
+        } else if (user.getAnimals() != null && !user.getAnimals().isEmpty()) {
             List<AnimalDto> animalDtos = new ArrayList<>();
             user.getAnimals().forEach(a -> animalDtos.add(animalMapper.toAnimalDto(a)));
             userDtoOutput.setAnimals(animalDtos);
@@ -38,7 +45,9 @@ public class UserMapper {
             userDtoOutput.setAnimals(Collections.emptyList());
         }
 
-        if (user.getEnclosures() != null && !user.getEnclosures().isEmpty()) {
+        if (!selection.loads("enclosures", true)) {
+            userDtoOutput.setEnclosures(null);
+        } else if (user.getEnclosures() != null && !user.getEnclosures().isEmpty()) {
             List<EnclosureDtoInput> enclosureDtoInputs = new ArrayList<>();
             user.getEnclosures().forEach(e -> enclosureDtoInputs.add(enclosureMapper.toDtoLong(e)));
             userDtoOutput.setEnclosures(enclosureDtoInputs);
@@ -46,6 +55,12 @@ public class UserMapper {
             userDtoOutput.setEnclosures(Collections.emptyList());
         }
 
+        if (selection.loads("tickets", false)) {
+            userDtoOutput.setTickets(ticketMapper.toDtoList(user.getTickets()));
+        } else {
+            userDtoOutput.setTickets(null);
+        }
+
         return userDtoOutput;
     }
 
@@ -0,0 +1,44 @@
+package com.finconsgroup.com.zoo.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each event as one JSON line, for local testing without a broker.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "zoo.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${zoo.outbox.file.path:outbox/events.jsonl}")
+    private Path path;
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxMessage message : messages) {
+                writer.write(objectMapper.writeValueAsString(message));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.finconsgroup.com.zoo.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "zoo.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemoryOutboxSink(@Value("${zoo.outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    public synchronized List<OutboxMessage> snapshot() {
+        return new ArrayList<>(messages);
+    }
+}
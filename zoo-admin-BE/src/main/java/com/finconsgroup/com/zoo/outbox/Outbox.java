@@ -0,0 +1,73 @@
+package com.finconsgroup.com.zoo.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finconsgroup.com.zoo.entity.OutboxEvent;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores a change event in the caller's transaction, so it is committed or
+     * rolled back together with the change it describes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(EntityType aggregateType, AuditAction eventType, Long aggregateId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setCreatedAt(Instant.now());
+        event.setPayload(serialize(payload));
+
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Same as {@link #publish} for many aggregates at once, written as a single
+     * JDBC batch instead of one insert per event.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void publishAll(EntityType aggregateType, AuditAction eventType, List<T> payloads, Function<T, Long> aggregateId) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)",
+                payloads, payloads.size(), (ps, payload) -> {
+                    ps.setString(1, aggregateType.name());
+                    ps.setLong(2, aggregateId.apply(payload));
+                    ps.setString(3, eventType.name());
+                    ps.setString(4, serialize(payload));
+                    ps.setTimestamp(5, createdAt);
+                });
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializzazione dell'evento outbox fallita", e);
+        }
+    }
+}
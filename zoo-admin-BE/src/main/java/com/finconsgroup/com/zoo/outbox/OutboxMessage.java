@@ -0,0 +1,16 @@
+package com.finconsgroup.com.zoo.outbox;
+
+import com.finconsgroup.com.zoo.entity.OutboxEvent;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+
+import java.time.Instant;
+
+public record OutboxMessage(long id, EntityType aggregateType, long aggregateId, AuditAction eventType,
+                            String payload, Instant createdAt) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,74 @@
+package com.finconsgroup.com.zoo.outbox;
+
+import com.finconsgroup.com.zoo.entity.OutboxEvent;
+import com.finconsgroup.com.zoo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter published;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSink> sinks,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${zoo.outbox.batch-size:500}") int batchSize,
+                       @Value("${zoo.outbox.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.published = Counter.builder("zoo.outbox.published").register(meterRegistry);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${zoo.outbox.poll-interval:1000}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer relayed = transactionTemplate.execute(status -> relayBatch());
+                if (relayed == null || relayed < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Invio degli eventi outbox fallito, nuovo tentativo al prossimo ciclo", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockUnpublished(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxMessage> messages = batch.stream().map(OutboxMessage::of).toList();
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publish(messages);
+            } catch (Exception e) {
+                throw new IllegalStateException("Sink " + sink.getClass().getSimpleName() + " non disponibile", e);
+            }
+        }
+
+        // relayed rows are removed in the same transaction, so the table only ever holds the backlog
+        outboxEventRepository.deleteRelayed(batch.stream().map(OutboxEvent::getId).toList());
+        published.increment(batch.size());
+        return batch.size();
+    }
+}
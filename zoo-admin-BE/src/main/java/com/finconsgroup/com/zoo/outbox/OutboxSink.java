@@ -0,0 +1,13 @@
+package com.finconsgroup.com.zoo.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. A batch is marked as published only
+ * if publish returns normally; on an exception it is retried on the next run,
+ * so sinks must tolerate duplicates.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
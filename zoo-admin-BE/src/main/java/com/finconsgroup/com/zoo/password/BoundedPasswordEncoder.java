@@ -0,0 +1,103 @@
+package com.finconsgroup.com.zoo.password;
+
+import com.finconsgroup.com.zoo.config.PasswordProperties;
+import com.finconsgroup.com.zoo.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every hash and verification on a small fixed pool, so a burst of logins
+ * uses at most {@code zoo.password.threads} cores. At most
+ * {@code zoo.password.queue-capacity} requests wait for a slot; the rest are
+ * turned away at once instead of holding request threads until the burst clears.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer waited;
+    private final Timer encoded;
+    private final Timer matched;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        AtomicInteger threads = new AtomicInteger();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0, TimeUnit.MILLISECONDS,
+                queue, r -> {
+                    Thread thread = new Thread(r, "password-hasher-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.waited = Timer.builder("zoo.password.wait").register(meterRegistry);
+        this.encoded = Timer.builder("zoo.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matched = Timer.builder("zoo.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("zoo.password.rejected").register(meterRegistry);
+        meterRegistry.gauge("zoo.password.queue.size", queue, BlockingQueue::size);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encoded, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matched, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // only parses the stored hash
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                waited.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Troppe verifiche di password in corso, riprovare tra poco");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verifica della password interrotta", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.finconsgroup.com.zoo.purge;
+
+import com.finconsgroup.com.zoo.config.PurgeProperties;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import com.finconsgroup.com.zoo.escalation.UrgencyEscalator;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.event.EntityChangedEvent;
+import com.finconsgroup.com.zoo.event.TicketsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Physically removes tombstoned rows. Deletes only set the tombstone, so they take
+ * the same time whatever hangs off the row; this job, run off-peak, detaches what
+ * still references a deleted enclosure or user and then removes the rows, one
+ * bounded batch per transaction. Until it runs, the services treat a reference to a
+ * tombstone as none. Batches lock with SKIP LOCKED, so nodes running it at the same
+ * time share the work instead of waiting on each other.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TombstonePurge {
+
+    private static final String DELETE_TICKETS =
+            "DELETE FROM tickets WHERE (id, site_id) IN " +
+            "(SELECT id, site_id FROM tickets WHERE deleted LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    // weight chunks go with them through the delete trigger
+    private static final String DELETE_ANIMALS =
+            "DELETE FROM animals WHERE (id, site_id) IN " +
+            "(SELECT id, site_id FROM animals WHERE deleted LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String DETACHED_ANIMAL =
+            "RETURNING a.id, a.name, a.category, a.weight, a.user_id, a.enclosure_id, a.site_id, a.deleted";
+
+    private static final String DETACH_ANIMALS_FROM_ENCLOSURES =
+            "UPDATE animals a SET enclosure_id = NULL FROM " +
+            "(SELECT c.id, c.site_id FROM animals c JOIN enclosures e ON e.id = c.enclosure_id " +
+            "WHERE e.deleted LIMIT ? FOR UPDATE OF c SKIP LOCKED) d " +
+            "WHERE a.id = d.id AND a.site_id = d.site_id " + DETACHED_ANIMAL;
+
+    private static final String DETACH_ANIMALS_FROM_USERS =
+            "UPDATE animals a SET user_id = NULL FROM " +
+            "(SELECT c.id, c.site_id FROM animals c JOIN users u ON u.id = c.user_id " +
+            "WHERE u.deleted LIMIT ? FOR UPDATE OF c SKIP LOCKED) d " +
+            "WHERE a.id = d.id AND a.site_id = d.site_id " + DETACHED_ANIMAL;
+
+    private static final String DETACH_ENCLOSURES =
+            "UPDATE enclosures e SET user_id = NULL FROM " +
+            "(SELECT c.id FROM enclosures c JOIN users u ON u.id = c.user_id " +
+            "WHERE u.deleted LIMIT ? FOR UPDATE OF c SKIP LOCKED) d " +
+            "WHERE e.id = d.id RETURNING e.id, e.deleted";
+
+    // the tickets of a deleted operator go back to the queue
+    private static final String DETACH_TICKETS =
+            "UPDATE tickets t SET assigned_user_id = NULL FROM " +
+            "(SELECT c.id, c.site_id, c.assigned_user_id FROM tickets c JOIN users u ON u.id = c.assigned_user_id " +
+            "WHERE u.deleted LIMIT ? FOR UPDATE OF c SKIP LOCKED) d " +
+            "WHERE t.id = d.id AND t.site_id = d.site_id " +
+            "RETURNING t.id, t.recommended_role, t.ticket_urgency, t.urgency_since, d.assigned_user_id, t.deleted";
+
+    // rows still referenced are left for a later batch rather than failing on the foreign key
+    private static final String DELETE_ENCLOSURES =
+            "DELETE FROM enclosures WHERE id IN (SELECT e.id FROM enclosures e WHERE e.deleted " +
+            "AND NOT EXISTS (SELECT 1 FROM animals a WHERE a.enclosure_id = e.id) " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String DELETE_USERS =
+            "DELETE FROM users WHERE id IN (SELECT u.id FROM users u WHERE u.deleted " +
+            "AND NOT EXISTS (SELECT 1 FROM animals a WHERE a.user_id = u.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM enclosures e WHERE e.user_id = u.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM tickets t WHERE t.assigned_user_id = u.id) " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UrgencyEscalator urgencyEscalator;
+    private final PurgeProperties properties;
+
+    @Scheduled(cron = "${zoo.purge.cron:0 0 3 * * *}")
+    public void purge() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long deadline = System.nanoTime() + properties.getWindow().toNanos();
+        try {
+            int tickets = drain(deadline, () -> delete(DELETE_TICKETS));
+            int animals = drain(deadline, () -> delete(DELETE_ANIMALS));
+
+            int detached = drain(deadline, () -> detachAnimals(DETACH_ANIMALS_FROM_ENCLOSURES));
+            int enclosures = drain(deadline, () -> delete(DELETE_ENCLOSURES));
+
+            detached += drain(deadline, () -> detachAnimals(DETACH_ANIMALS_FROM_USERS));
+            detached += drain(deadline, this::detachEnclosures);
+            detached += drain(deadline, this::detachTickets);
+            int users = drain(deadline, () -> delete(DELETE_USERS));
+
+            if (tickets + animals + enclosures + users + detached > 0) {
+                log.info("Pulizia completata: rimossi {} ticket, {} animali, {} gabbie e {} utenti, {} riferimenti scollegati",
+                        tickets, animals, enclosures, users, detached);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Pulizia degli elementi eliminati interrotta, riprende alla prossima esecuzione", e);
+        }
+    }
+
+    // runs batches until one comes back short or the window closes
+    private int drain(long deadline, IntSupplier batch) {
+        int total = 0;
+        while (System.nanoTime() < deadline) {
+            Integer rows = transactionTemplate.execute(status -> batch.getAsInt());
+            total += rows;
+            if (rows < properties.getBatchSize()) {
+                break;
+            }
+            pause();
+        }
+        return total;
+    }
+
+    private int delete(String sql) {
+        return jdbcTemplate.update(sql, properties.getBatchSize());
+    }
+
+    private int detachAnimals(String sql) {
+        // tombstoned animals are detached too, but only live ones are reported as changed
+        List<AnimalDto> detached = jdbcTemplate.query(sql, (rs, row) -> rs.getBoolean(8) ? null : new AnimalDto(
+                rs.getLong(1),
+                rs.getString(2),
+                CodedEnum.fromCode(AnimalCategory.class, rs.getObject(3, Short.class)),
+                rs.getObject(4, Double.class),
+                rs.getObject(5, Long.class),
+                rs.getObject(6, Long.class),
+                rs.getLong(7)), properties.getBatchSize());
+        List<AnimalDto> live = detached.stream().filter(Objects::nonNull).toList();
+        if (!live.isEmpty()) {
+            eventPublisher.publishEvent(AnimalsChangedEvent.changed(live));
+        }
+        return detached.size();
+    }
+
+    private int detachEnclosures() {
+        List<Long> detached = jdbcTemplate.query(DETACH_ENCLOSURES,
+                (rs, row) -> rs.getBoolean(2) ? null : rs.getLong(1), properties.getBatchSize());
+        detached.stream().filter(Objects::nonNull)
+                .forEach(id -> eventPublisher.publishEvent(new EntityChangedEvent(EntityType.ENCLOSURE, id)));
+        return detached.size();
+    }
+
+    private int detachTickets() {
+        Set<Long> users = new HashSet<>();
+        List<Long> detached = jdbcTemplate.query(DETACH_TICKETS, (rs, row) -> {
+            users.add(rs.getLong(5));
+            if (rs.getBoolean(6)) {
+                return null;
+            }
+            long id = rs.getLong(1);
+            Timestamp since = rs.getTimestamp(4);
+            urgencyEscalator.track(id,
+                    CodedEnum.fromCode(OperatorType.class, rs.getObject(2, Short.class)),
+                    CodedEnum.fromCode(TicketUrgency.class, rs.getObject(3, Short.class)),
+                    since != null ? since.toInstant() : Instant.now());
+            return id;
+        }, properties.getBatchSize());
+        List<Long> live = detached.stream().filter(Objects::nonNull).toList();
+        if (!live.isEmpty()) {
+            eventPublisher.publishEvent(new TicketsChangedEvent(live, new ArrayList<>(users)));
+        }
+        return detached.size();
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pulizia interrotta", e);
+        }
+    }
+}
@@ -2,7 +2,19 @@ package com.finconsgroup.com.zoo.repository;
 
 import com.finconsgroup.com.zoo.dto.AnimalDto;
 import com.finconsgroup.com.zoo.entity.Animal;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface AnimalRepository extends JpaRepository<Animal, Long> {
+
+    // ordered so concurrent batches take the row locks in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Animal a WHERE a.id IN :ids ORDER BY a.id")
+    List<Animal> lockAllById(@Param("ids") Collection<Long> ids);
 }
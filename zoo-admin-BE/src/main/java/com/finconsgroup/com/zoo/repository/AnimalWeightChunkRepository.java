@@ -0,0 +1,34 @@
+package com.finconsgroup.com.zoo.repository;
+
+import com.finconsgroup.com.zoo.entity.AnimalWeightChunk;
+import com.finconsgroup.com.zoo.entity.AnimalWeightChunkId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface AnimalWeightChunkRepository extends JpaRepository<AnimalWeightChunk, AnimalWeightChunkId> {
+
+    @Query("SELECT c FROM AnimalWeightChunk c WHERE c.id.animalId = :animalId " +
+           "AND c.lastAt >= :from AND c.firstAt <= :to ORDER BY c.id.chunkStart")
+    List<AnimalWeightChunk> findOverlapping(@Param("animalId") Long animalId,
+                                            @Param("from") Instant from,
+                                            @Param("to") Instant to);
+
+    // may return a few extra chunks when several animals are given; callers match on the full id
+    @Query("SELECT c FROM AnimalWeightChunk c WHERE c.id.animalId IN :animalIds AND c.id.chunkStart IN :starts")
+    List<AnimalWeightChunk> findChunks(@Param("animalIds") Collection<Long> animalIds,
+                                       @Param("starts") Collection<Instant> starts);
+
+    @Query("SELECT c.id.animalId AS animalId, MAX(c.lastAt) AS latestAt FROM AnimalWeightChunk c " +
+           "WHERE c.id.animalId IN :animalIds GROUP BY c.id.animalId")
+    List<LatestSample> findLatestAt(@Param("animalIds") Collection<Long> animalIds);
+
+    interface LatestSample {
+        Long getAnimalId();
+        Instant getLatestAt();
+    }
+}
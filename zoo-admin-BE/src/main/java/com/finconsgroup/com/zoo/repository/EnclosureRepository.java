@@ -4,5 +4,10 @@ import com.finconsgroup.com.zoo.entity.Animal;
 import com.finconsgroup.com.zoo.entity.Enclosure;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface EnclosureRepository extends JpaRepository<Enclosure, Long> {
+
+    List<Enclosure> findByNameIn(Collection<String> names);
 }
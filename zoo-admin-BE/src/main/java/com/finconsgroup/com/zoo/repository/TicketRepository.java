@@ -2,11 +2,18 @@ package com.finconsgroup.com.zoo.repository;
 
 import com.finconsgroup.com.zoo.entity.Ticket;
 import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import com.finconsgroup.com.zoo.entity.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TicketRepository extends JpaRepository<Ticket,Long> {
@@ -18,4 +25,28 @@ public interface TicketRepository extends JpaRepository<Ticket,Long> {
 
 
     List<Ticket> findByUserIsNullAndRecommendedRoleIsNull();
+
+    // most urgent first, tickets for the role before generic ones, then the longest waiting;
+    // rows locked by another claim are skipped instead of waited for (-2 is SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Ticket t WHERE t.user IS NULL " +
+           "AND (:role IS NULL OR t.recommendedRole = :role OR t.recommendedRole IS NULL) " +
+           "ORDER BY t.ticketUrgency DESC NULLS LAST, " +
+           "CASE WHEN t.recommendedRole IS NULL THEN 1 ELSE 0 END, t.urgencySince, t.id")
+    List<Ticket> lockNextUnassigned(@Param("role") OperatorType role, Limit limit);
+
+    @Query("SELECT t.user.id AS userId, t.ticketUrgency AS urgency, COUNT(t) AS open " +
+           "FROM Ticket t WHERE t.user IS NOT NULL GROUP BY t.user.id, t.ticketUrgency")
+    List<OpenTicketCount> countOpenByUserAndUrgency();
+
+    @Query("SELECT t.user.id AS userId, t.ticketUrgency AS urgency, COUNT(t) AS open " +
+           "FROM Ticket t WHERE t.user.id IN :userIds GROUP BY t.user.id, t.ticketUrgency")
+    List<OpenTicketCount> countOpenByUserAndUrgency(@Param("userIds") Collection<Long> userIds);
+
+    interface OpenTicketCount {
+        Long getUserId();
+        TicketUrgency getUrgency();
+        long getOpen();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+package com.finconsgroup.com.zoo.search;
+
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.dto.AnimalSearchDtoInput;
+import com.finconsgroup.com.zoo.dto.AnimalSearchDtoOutput;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory animal search. Every animal is a bit, keyed by its id, in one
+ * compressed bitmap per category, enclosure and keeper; weights and lower-cased
+ * names are sorted maps of bitmaps, so ranges and prefixes are unions of
+ * neighbouring entries. A query is a handful of bitmap intersections and never
+ * touches the database. Each site has an index of its own, so a search only ever
+ * sees that site's animals.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnimalSearchIndex {
+
+    private static final String ALL_ANIMALS =
+            "SELECT id, name, category, weight, user_id, enclosure_id, site_id FROM animals WHERE NOT deleted";
+
+    private static final Index EMPTY = new Index();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Index> indexes = new HashMap<>();
+
+    /**
+     * Reloads the whole index. Runs on startup and periodically, which also picks up
+     * writes made by other nodes or outside the application.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${zoo.search.resync-interval:300000}", fixedDelayString = "${zoo.search.resync-interval:300000}")
+    public void rebuild() {
+        Map<Long, Index> rebuilt = new HashMap<>();
+        jdbcTemplate.query(ALL_ANIMALS, rs -> {
+            put(rebuilt, new AnimalDto(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    CodedEnum.fromCode(AnimalCategory.class, rs.getObject(3, Short.class)),
+                    rs.getObject(4, Double.class),
+                    rs.getObject(5, Long.class),
+                    rs.getObject(6, Long.class),
+                    rs.getLong(7)));
+        });
+        rebuilt.values().forEach(Index::optimize);
+
+        lock.writeLock().lock();
+        try {
+            indexes = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Indice di ricerca animali ricostruito per {} sedi", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalsChanged(AnimalsChangedEvent event) {
+        if (event.reload()) {
+            rebuild();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            event.changed().forEach(animal -> put(indexes, copy(animal)));
+            // removals carry only the id; looking it up in each site is a hash probe
+            event.removed().forEach(id -> indexes.values().forEach(index -> index.remove(key(id))));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public AnimalSearchDtoOutput search(Long site, AnimalSearchDtoInput criteria) {
+        lock.readLock().lock();
+        try {
+            return indexes.getOrDefault(site, EMPTY).search(criteria);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // bitmaps hold 32-bit values; identity ids stay far below that
+    private static int key(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    private static void put(Map<Long, Index> indexes, AnimalDto animal) {
+        indexes.computeIfAbsent(animal.getSite(), site -> new Index()).put(animal);
+    }
+
+    private static AnimalDto copy(AnimalDto animal) {
+        return new AnimalDto(animal.getId(), animal.getName(), animal.getCategory(), animal.getWeight(),
+                animal.getUser(), animal.getEnclosure(), animal.getSite());
+    }
+
+    private static final class Index {
+
+        private final Map<Integer, AnimalDto> animals = new HashMap<>();
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<AnimalCategory, RoaringBitmap> categories = new EnumMap<>(AnimalCategory.class);
+        private final Map<Long, RoaringBitmap> enclosures = new HashMap<>();
+        private final Map<Long, RoaringBitmap> users = new HashMap<>();
+        private final NavigableMap<Double, RoaringBitmap> weights = new TreeMap<>();
+        private final NavigableMap<String, RoaringBitmap> names = new TreeMap<>();
+
+        private void put(AnimalDto animal) {
+            int key = key(animal.getId());
+            remove(key);
+
+            animals.put(key, animal);
+            all.add(key);
+            add(categories, animal.getCategory(), key);
+            add(enclosures, animal.getEnclosure(), key);
+            add(users, animal.getUser(), key);
+            add(weights, animal.getWeight(), key);
+            add(names, normalize(animal.getName()), key);
+        }
+
+        private void remove(int key) {
+            AnimalDto animal = animals.remove(key);
+            if (animal == null) {
+                return;
+            }
+            all.remove(key);
+            remove(categories, animal.getCategory(), key);
+            remove(enclosures, animal.getEnclosure(), key);
+            remove(users, animal.getUser(), key);
+            remove(weights, animal.getWeight(), key);
+            remove(names, normalize(animal.getName()), key);
+        }
+
+        private void optimize() {
+            all.runOptimize();
+            categories.values().forEach(RoaringBitmap::runOptimize);
+            enclosures.values().forEach(RoaringBitmap::runOptimize);
+            users.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        private AnimalSearchDtoOutput search(AnimalSearchDtoInput criteria) {
+            RoaringBitmap byCategory = union(categories, criteria.getCategories());
+            RoaringBitmap byEnclosure = union(enclosures, criteria.getEnclosures());
+            RoaringBitmap byUser = union(users, criteria.getUsers());
+            RoaringBitmap byWeight = criteria.getMinWeight() == null && criteria.getMaxWeight() == null ? null
+                    : RoaringBitmap.or(weights.subMap(
+                            criteria.getMinWeight() != null ? criteria.getMinWeight() : Double.NEGATIVE_INFINITY, true,
+                            criteria.getMaxWeight() != null ? criteria.getMaxWeight() : Double.POSITIVE_INFINITY, true)
+                            .values().iterator());
+            String prefix = normalize(criteria.getNamePrefix());
+            RoaringBitmap byName = prefix == null || prefix.isEmpty() ? null
+                    : RoaringBitmap.or(names.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                            .values().iterator());
+
+            RoaringBitmap result = intersect(byCategory, byEnclosure, byUser, byWeight, byName);
+
+            AnimalSearchDtoOutput output = new AnimalSearchDtoOutput();
+            output.setTotal(result.getCardinality());
+            output.setOffset(criteria.getOffset());
+            output.setLimit(criteria.getLimit());
+            page(result, criteria.getOffset(), criteria.getLimit(), output.getAnimals());
+
+            facets(categories, intersect(byEnclosure, byUser, byWeight, byName), output.getCategoryFacets());
+            facets(enclosures, intersect(byCategory, byUser, byWeight, byName), output.getEnclosureFacets());
+            facets(users, intersect(byCategory, byEnclosure, byWeight, byName), output.getUserFacets());
+            return output;
+        }
+
+        private void page(RoaringBitmap result, int offset, int limit, List<AnimalDto> into) {
+            if (offset >= result.getCardinality() || limit <= 0) {
+                return;
+            }
+            PeekableIntIterator it = result.getIntIterator();
+            it.advanceIfNeeded(result.select(offset));
+            while (it.hasNext() && into.size() < limit) {
+                into.add(copy(animals.get(it.next())));
+            }
+        }
+
+        private RoaringBitmap intersect(RoaringBitmap... filters) {
+            RoaringBitmap result = null;
+            for (RoaringBitmap filter : filters) {
+                if (filter != null) {
+                    result = result == null ? filter.clone() : RoaringBitmap.and(result, filter);
+                }
+            }
+            return result != null ? result : all.clone();
+        }
+
+        private static <K> RoaringBitmap union(Map<K, RoaringBitmap> bitmaps, Collection<K> values) {
+            if (values == null || values.isEmpty()) {
+                return null;
+            }
+            List<RoaringBitmap> selected = new ArrayList<>(values.size());
+            for (K value : values) {
+                RoaringBitmap bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    selected.add(bitmap);
+                }
+            }
+            return RoaringBitmap.or(selected.iterator());
+        }
+
+        // largest first
+        private static <K> void facets(Map<K, RoaringBitmap> bitmaps, RoaringBitmap base, Map<K, Integer> into) {
+            List<Map.Entry<K, Integer>> counts = new ArrayList<>();
+            bitmaps.forEach((value, bitmap) -> {
+                int count = RoaringBitmap.andCardinality(base, bitmap);
+                if (count > 0) {
+                    counts.add(Map.entry(value, count));
+                }
+            });
+            counts.sort(Map.Entry.<K, Integer>comparingByValue(Comparator.reverseOrder()));
+            counts.forEach(entry -> into.put(entry.getKey(), entry.getValue()));
+        }
+
+        private static <K> void add(Map<K, RoaringBitmap> bitmaps, K value, int key) {
+            if (value != null) {
+                bitmaps.computeIfAbsent(value, v -> new RoaringBitmap()).add(key);
+            }
+        }
+
+        private static <K> void remove(Map<K, RoaringBitmap> bitmaps, K value, int key) {
+            if (value == null) {
+                return;
+            }
+            RoaringBitmap bitmap = bitmaps.get(value);
+            if (bitmap != null) {
+                bitmap.remove(key);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(value);
+                }
+            }
+        }
+
+        private static String normalize(String name) {
+            return name != null ? name.trim().toLowerCase(Locale.ROOT) : null;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.finconsgroup.com.zoo.audit.AuditTrail;
+import com.finconsgroup.com.zoo.capacity.EnclosureCapacity;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.dto.CsvImportErrorDto;
+import com.finconsgroup.com.zoo.dto.CsvImportReportDto;
+import com.finconsgroup.com.zoo.entity.Enclosure;
+import com.finconsgroup.com.zoo.entity.User;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.exception.InvalidInputException;
+import com.finconsgroup.com.zoo.interfaces.AnimalCsvInterface;
+import com.finconsgroup.com.zoo.interfaces.AnimalWeightInterface;
+import com.finconsgroup.com.zoo.outbox.Outbox;
+import com.finconsgroup.com.zoo.repository.EnclosureRepository;
+import com.finconsgroup.com.zoo.repository.UserRepository;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk animal import and export over the PostgreSQL COPY protocol. Both directions
+ * stream: the import copies one chunk of rows at a time, so memory use depends on
+ * the chunk size and the number of distinct users and enclosures referenced, not
+ * on the number of rows. Until the commit, only the audit trail keeps anything per
+ * chunk: the runs of ids it has to record.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnimalCsvService implements AnimalCsvInterface {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    // rows are copied into a staging table and moved on with INSERT ... RETURNING, so
+    // the generated ids are known for the outbox, the audit log and the weight history
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE animal_import ON COMMIT DROP AS " +
+            "SELECT name, category, weight, user_id, enclosure_id, site_id FROM animals WITH NO DATA";
+
+    private static final String COPY_IN =
+            "COPY animal_import (name, category, weight, user_id, enclosure_id, site_id) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MOVE_STAGED =
+            "WITH staged AS (DELETE FROM animal_import RETURNING *) " +
+            "INSERT INTO animals (name, category, weight, user_id, enclosure_id, site_id) " +
+            "SELECT name, category, weight, user_id, enclosure_id, site_id FROM staged " +
+            "RETURNING id, name, category, weight, user_id, enclosure_id, site_id";
+
+    // categories are exported by name, as the import expects them; COPY takes no
+    // parameters, so the site id is formatted in
+    private static final String COPY_OUT =
+            "COPY (SELECT a.id, a.name, " + categoryName("a.category") + " AS category, a.weight, " +
+            "a.user_id AS \"user\", u.username, a.enclosure_id AS enclosure, e.name AS enclosure_name FROM animals a " +
+            "LEFT JOIN users u ON u.id = a.user_id LEFT JOIN enclosures e ON e.id = a.enclosure_id " +
+            "WHERE a.site_id = %d AND NOT a.deleted ORDER BY a.id) TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final EnclosureRepository enclosureRepository;
+    private final EnclosureCapacity enclosureCapacity;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SiteContext siteContext;
+    private final AuditTrail auditTrail;
+    private final Outbox outbox;
+    private final AnimalWeightInterface animalWeightInterface;
+
+    /**
+     * Loads animals from CSV with a header row. Required columns are name, category,
+     * weight, user and enclosure; user takes an id or a username and enclosure an id
+     * or a unique enclosure name. Other columns, such as those written by the export,
+     * are ignored. Invalid rows, including those that would exceed an enclosure's
+     * capacity, are skipped and reported; all valid rows are committed together.
+     * Imported animals are audited, published to the outbox and get their weight as
+     * the first reading, like animals created one at a time.
+     */
+    @Override
+    @Transactional
+    public CsvImportReportDto importCsv(InputStream csv) {
+        CsvImportReportDto report = new CsvImportReportDto();
+        Long site = siteContext.requireSite();
+        References users = new References();
+        References enclosures = new References();
+        jdbcTemplate.execute(CREATE_STAGING);
+
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerFor(Map.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+
+            List<CsvRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            long line = 1;
+            while (rows.hasNextValue()) {
+                chunk.add(new CsvRow(++line, rows.nextValue()));
+                if (chunk.size() == CHUNK_SIZE) {
+                    load(chunk, site, users, enclosures, report);
+                    chunk.clear();
+                }
+            }
+            load(chunk, site, users, enclosures, report);
+            if (report.getImported() > 0) {
+                eventPublisher.publishEvent(AnimalsChangedEvent.reloadAll());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Importazione CSV fallita", e);
+        } catch (IOException e) {
+            throw new InvalidInputException("CSV non leggibile: " + e.getMessage());
+        }
+        return report;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCsv(OutputStream out) {
+        String copyOut = COPY_OUT.formatted(siteContext.requireSite());
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyOut(copyOut, out);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Esportazione CSV fallita", e);
+        } catch (IOException e) {
+            // the client went away mid-stream: the cancelled COPY leaves the connection
+            // out of step with the server, so it must not go back to the pool
+            try {
+                connection.abort(Runnable::run);
+            } catch (SQLException abortFailure) {
+                e.addSuppressed(abortFailure);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // references are resolved before the COPY starts: the connection cannot run other
+    // statements while a COPY is in progress
+    private void load(List<CsvRow> chunk, Long site, References users, References enclosures,
+                      CsvImportReportDto report) throws IOException, SQLException {
+        for (CsvRow row : chunk) {
+            users.want(row.value("user"));
+            enclosures.want(row.value("enclosure"));
+        }
+        users.resolve(ids -> userRepository.findAllById(ids).stream().map(User::getId).toList(),
+                names -> userRepository.findByUsernameIn(names).stream()
+                        .map(user -> Map.entry(user.getUsername(), user.getId())).toList());
+        enclosures.resolve(ids -> enclosureRepository.findAllById(ids).stream().map(Enclosure::getId).toList(),
+                names -> enclosureRepository.findByNameIn(names).stream()
+                        .map(enclosure -> Map.entry(enclosure.getName(), enclosure.getId())).toList());
+
+        List<ParsedRow> parsed = new ArrayList<>(chunk.size());
+        for (CsvRow row : chunk) {
+            try {
+                parsed.add(new ParsedRow(row.line(),
+                        row.required("name"),
+                        parseCategory(row.required("category")),
+                        parseWeight(row.required("weight")),
+                        users.lookup(row.required("user"), "utente"),
+                        enclosures.lookup(row.required("enclosure"), "gabbia")));
+            } catch (InvalidInputException e) {
+                reject(report, row.line(), e);
+            }
+        }
+
+        EnclosureCapacity.Ledger ledger = enclosureCapacity.open(parsed.stream().map(ParsedRow::enclosureId).toList());
+        StringBuilder buffer = new StringBuilder(parsed.size() * 48);
+        for (ParsedRow row : parsed) {
+            try {
+                ledger.place(row.enclosureId(), row.category());
+            } catch (InvalidInputException e) {
+                reject(report, row.line(), e);
+                continue;
+            }
+            buffer.append(quote(row.name())).append(',')
+                    .append(row.category().getCode()).append(',')
+                    .append(row.weight()).append(',')
+                    .append(row.userId()).append(',')
+                    .append(row.enclosureId()).append(',')
+                    .append(site).append('\n');
+            report.setImported(report.getImported() + 1);
+        }
+        if (!buffer.isEmpty()) {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_IN, new StringReader(buffer.toString()));
+            ledger.flush();
+            imported(jdbcTemplate.query(MOVE_STAGED, (rs, i) -> new AnimalDto(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    CodedEnum.fromCode(AnimalCategory.class, rs.getObject(3, Short.class)),
+                    rs.getObject(4, Double.class),
+                    rs.getObject(5, Long.class),
+                    rs.getObject(6, Long.class),
+                    rs.getLong(7))));
+        }
+    }
+
+    private void imported(List<AnimalDto> animals) {
+        List<Long> ids = animals.stream().map(AnimalDto::getId).toList();
+        Map<Long, Double> weights = new HashMap<>();
+        animals.forEach(animal -> weights.put(animal.getId(), animal.getWeight()));
+
+        animalWeightInterface.recordWeights(weights, Instant.now());
+        auditTrail.recordAll(EntityType.ANIMAL, AuditAction.CREATE, ids);
+        outbox.publishAll(EntityType.ANIMAL, AuditAction.CREATE, animals, AnimalDto::getId);
+    }
+
+    private static void reject(CsvImportReportDto report, long line, InvalidInputException e) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new CsvImportErrorDto(line, e.getMessage()));
+        }
+    }
+
+    private static AnimalCategory parseCategory(String value) {
+        try {
+            return AnimalCategory.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Categoria non valida: " + value);
+        }
+    }
+
+    private static double parseWeight(String value) {
+        try {
+            double weight = Double.parseDouble(value.trim());
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new InvalidInputException("Peso non valido: " + value);
+            }
+            return weight;
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Peso non valido: " + value);
+        }
+    }
+
+    private static String categoryName(String column) {
+        StringBuilder sql = new StringBuilder("CASE ").append(column);
+        for (AnimalCategory category : AnimalCategory.values()) {
+            sql.append(" WHEN ").append(category.getCode()).append(" THEN '").append(category.name()).append('\'');
+        }
+        return sql.append(" END").toString();
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record ParsedRow(long line, String name, AnimalCategory category, double weight,
+                             Long userId, Long enclosureId) {
+    }
+
+    private record CsvRow(long line, Map<String, String> values) {
+
+        String value(String column) {
+            String value = values.get(column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        String required(String column) {
+            String value = value(column);
+            if (value == null) {
+                throw new InvalidInputException("Colonna obbligatoria mancante: " + column);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * User or enclosure references seen so far, given either as a numeric id or by
+     * name. Unknown ones are resolved once per chunk with two IN queries.
+     */
+    private static final class References {
+
+        private final Map<Long, Boolean> ids = new HashMap<>();
+        private final Map<String, Long> names = new HashMap<>();
+        private final Set<String> ambiguous = new HashSet<>();
+        private final Set<Long> pendingIds = new HashSet<>();
+        private final Set<String> pendingNames = new HashSet<>();
+
+        void want(String reference) {
+            if (reference == null) {
+                return;
+            }
+            Long id = asId(reference);
+            if (id != null) {
+                if (!ids.containsKey(id)) {
+                    pendingIds.add(id);
+                }
+            } else if (!names.containsKey(reference) && !ambiguous.contains(reference)) {
+                pendingNames.add(reference);
+            }
+        }
+
+        void resolve(Function<Set<Long>, List<Long>> findIds,
+                     Function<Set<String>, List<Map.Entry<String, Long>>> findNames) {
+            if (!pendingIds.isEmpty()) {
+                pendingIds.forEach(id -> ids.put(id, false));
+                findIds.apply(pendingIds).forEach(id -> ids.put(id, true));
+                pendingIds.clear();
+            }
+            if (!pendingNames.isEmpty()) {
+                pendingNames.forEach(name -> names.put(name, null));
+                for (Map.Entry<String, Long> match : findNames.apply(pendingNames)) {
+                    if (names.get(match.getKey()) != null) {
+                        ambiguous.add(match.getKey());
+                    }
+                    names.put(match.getKey(), match.getValue());
+                }
+                ambiguous.forEach(names::remove);
+                pendingNames.clear();
+            }
+        }
+
+        Long lookup(String reference, String kind) {
+            Long id = asId(reference);
+            if (id != null) {
+                if (!Boolean.TRUE.equals(ids.get(id))) {
+                    throw new InvalidInputException("Riferimento a " + kind + " non trovato: " + id);
+                }
+                return id;
+            }
+            if (ambiguous.contains(reference)) {
+                throw new InvalidInputException("Riferimento a " + kind + " ambiguo: " + reference);
+            }
+            Long resolved = names.get(reference);
+            if (resolved == null) {
+                throw new InvalidInputException("Riferimento a " + kind + " non trovato: " + reference);
+            }
+            return resolved;
+        }
+
+        private static Long asId(String reference) {
+            for (int i = 0; i < reference.length(); i++) {
+                if (!Character.isDigit(reference.charAt(i))) {
+                    return null;
+                }
+            }
+            try {
+                return Long.parseLong(reference);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
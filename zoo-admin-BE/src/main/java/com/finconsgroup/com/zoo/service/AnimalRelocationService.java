@@ -0,0 +1,115 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.finconsgroup.com.zoo.audit.AuditTrail;
+import com.finconsgroup.com.zoo.capacity.EnclosureCapacity;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.dto.RelocationDtoInput;
+import com.finconsgroup.com.zoo.dto.RelocationDtoOutput;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.exception.InvalidInputException;
+import com.finconsgroup.com.zoo.interfaces.AnimalRelocationInterface;
+import com.finconsgroup.com.zoo.outbox.Outbox;
+import com.finconsgroup.com.zoo.repository.EnclosureRepository;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class AnimalRelocationService implements AnimalRelocationInterface {
+
+    private static final String LOCK_ANIMALS =
+            "SELECT id, name, category, weight, user_id, enclosure_id, site_id FROM animals " +
+            "WHERE site_id = ? AND id = ANY(?::bigint[]) AND NOT deleted ORDER BY id FOR UPDATE";
+
+    private static final String RELOCATE =
+            "UPDATE animals SET enclosure_id = ? WHERE site_id = ? AND id = ANY(?::bigint[])";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EnclosureRepository enclosureRepository;
+    private final EnclosureCapacity enclosureCapacity;
+    private final AuditTrail auditTrail;
+    private final Outbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SiteContext siteContext;
+
+    /**
+     * Moves every listed animal into the target enclosure, or none of them when one
+     * is missing or would not fit. Animals already in the target are left as they are.
+     */
+    @Override
+    @Transactional
+    public RelocationDtoOutput relocate(RelocationDtoInput relocationDtoInput) {
+        if (relocationDtoInput == null || relocationDtoInput.getEnclosure() == null
+                || relocationDtoInput.getAnimals() == null || relocationDtoInput.getAnimals().isEmpty()) {
+            throw new InvalidInputException("Indicare la gabbia di destinazione e almeno un animale");
+        }
+        Long site = siteContext.requireSite();
+        Long target = relocationDtoInput.getEnclosure();
+        if (!enclosureRepository.existsById(target)) {
+            throw new InvalidInputException("Nessuna gabbia presente con questo id");
+        }
+
+        Set<Long> requested = new LinkedHashSet<>(relocationDtoInput.getAnimals());
+        requested.remove(null);
+        List<AnimalDto> animals = jdbcTemplate.query(LOCK_ANIMALS, (rs, i) -> new AnimalDto(
+                rs.getLong(1),
+                rs.getString(2),
+                CodedEnum.fromCode(AnimalCategory.class, rs.getObject(3, Short.class)),
+                rs.getObject(4, Double.class),
+                rs.getObject(5, Long.class),
+                rs.getObject(6, Long.class),
+                rs.getLong(7)), site, requested.toArray(Long[]::new));
+
+        if (animals.size() != requested.size()) {
+            animals.forEach(a -> requested.remove(a.getId()));
+            throw new InvalidInputException("Nessun animale presente con questi id: " + requested);
+        }
+
+        Set<Long> enclosures = new LinkedHashSet<>();
+        enclosures.add(target);
+        List<AnimalDto> moving = new ArrayList<>(animals.size());
+        for (AnimalDto animal : animals) {
+            if (!Objects.equals(animal.getEnclosure(), target)) {
+                if (animal.getEnclosure() != null) {
+                    enclosures.add(animal.getEnclosure());
+                }
+                moving.add(animal);
+            }
+        }
+
+        EnclosureCapacity.Ledger ledger = enclosureCapacity.open(enclosures);
+        for (AnimalDto animal : moving) {
+            ledger.release(animal.getEnclosure(), animal.getCategory());
+            ledger.place(target, animal.getCategory());
+            animal.setEnclosure(target);
+        }
+
+        if (!moving.isEmpty()) {
+            jdbcTemplate.update(RELOCATE, target, site, moving.stream().map(AnimalDto::getId).toArray(Long[]::new));
+            ledger.flush();
+            moving.forEach(a -> auditTrail.record(EntityType.ANIMAL, AuditAction.UPDATE, a.getId()));
+            outbox.publishAll(EntityType.ANIMAL, AuditAction.UPDATE, moving, AnimalDto::getId);
+            eventPublisher.publishEvent(AnimalsChangedEvent.changed(moving));
+        }
+
+        RelocationDtoOutput result = new RelocationDtoOutput();
+        result.setEnclosure(target);
+        result.setRelocated(moving.size());
+        enclosures.forEach(id -> result.getOccupancy().add(ledger.occupancy(id)));
+        return result;
+    }
+}
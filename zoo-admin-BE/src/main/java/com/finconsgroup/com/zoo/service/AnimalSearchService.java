@@ -0,0 +1,35 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.finconsgroup.com.zoo.dto.AnimalSearchDtoInput;
+import com.finconsgroup.com.zoo.dto.AnimalSearchDtoOutput;
+import com.finconsgroup.com.zoo.exception.InvalidInputException;
+import com.finconsgroup.com.zoo.interfaces.AnimalSearchInterface;
+import com.finconsgroup.com.zoo.search.AnimalSearchIndex;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class AnimalSearchService implements AnimalSearchInterface {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final AnimalSearchIndex animalSearchIndex;
+    private final SiteContext siteContext;
+
+    @Override
+    public AnimalSearchDtoOutput search(AnimalSearchDtoInput criteria) {
+        if (criteria == null) {
+            throw new InvalidInputException("Criteri di ricerca non validi");
+        }
+        if (criteria.getMinWeight() != null && criteria.getMaxWeight() != null
+                && criteria.getMinWeight() > criteria.getMaxWeight()) {
+            throw new InvalidInputException("Il peso minimo supera il peso massimo");
+        }
+        if (criteria.getOffset() < 0 || criteria.getLimit() < 0 || criteria.getLimit() > MAX_LIMIT) {
+            throw new InvalidInputException("Paginazione non valida: limit deve essere tra 0 e " + MAX_LIMIT);
+        }
+        return animalSearchIndex.search(siteContext.requireSite(), criteria);
+    }
+}
@@ -1,19 +1,33 @@
 package com.finconsgroup.com.zoo.service;
 
+import com.finconsgroup.com.zoo.audit.AuditTrail;
+import com.finconsgroup.com.zoo.capacity.EnclosureCapacity;
 import com.finconsgroup.com.zoo.dto.AnimalDto;
 import com.finconsgroup.com.zoo.entity.Animal;
 import com.finconsgroup.com.zoo.entity.Enclosure;
 import com.finconsgroup.com.zoo.entity.User;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
 import com.finconsgroup.com.zoo.exception.InvalidInputException;
 import com.finconsgroup.com.zoo.interfaces.AnimalInterface;
+import com.finconsgroup.com.zoo.interfaces.AnimalWeightInterface;
 import com.finconsgroup.com.zoo.mapper.AnimalMapper;
+import com.finconsgroup.com.zoo.outbox.Outbox;
 import com.finconsgroup.com.zoo.repository.AnimalRepository;
 import com.finconsgroup.com.zoo.repository.EnclosureRepository;
 import com.finconsgroup.com.zoo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -23,9 +37,15 @@ public class AnimalService implements AnimalInterface {
     private final UserRepository userRepository;
     private final EnclosureRepository enclosureRepository;
     private final AnimalMapper animalMapper;
+    private final AuditTrail auditTrail;
+    private final Outbox outbox;
+    private final AnimalWeightInterface animalWeightInterface;
+    private final EnclosureCapacity enclosureCapacity;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
+    @Transactional
     public AnimalDto addAnimal(AnimalDto animalDto) {
         if (animalDto != null) {
             User user = userRepository.findById(animalDto.getUser()).orElseThrow(
@@ -38,20 +58,30 @@ public class AnimalService implements AnimalInterface {
 
             Animal animal = animalMapper.toAnimal(animalDto, user, enclosure);
 
+            EnclosureCapacity.Ledger ledger = enclosureCapacity.open(Set.of(enclosure.getId()));
+            ledger.place(enclosure.getId(), animal.getCategory());
+
             Animal saved = animalRepository.save(animal);
+            ledger.flush();
 
             user.getAnimals().add(saved);
-            enclosure.getAnimals().add(saved);
             userRepository.save(user);
-            enclosureRepository.save(enclosure);
 
-            return animalMapper.toAnimalDto(animal);
+            animalWeightInterface.recordWeight(saved.getId(), Instant.now(), saved.getWeight());
+
+            AnimalDto dto = animalMapper.toAnimalDto(animal);
+            eventPublisher.publishEvent(AnimalsChangedEvent.changed(List.of(dto)));
+            auditTrail.record(EntityType.ANIMAL, AuditAction.CREATE, saved.getId());
+            outbox.publish(EntityType.ANIMAL, AuditAction.CREATE, saved.getId(), dto);
+
+            return dto;
         } else {
             throw new InvalidInputException("Il dto passato non è valido");
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AnimalDto findById(Long id) {
         Animal animal = animalRepository.findById(id).orElseThrow(
                 () -> new InvalidInputException("Nessun elemento presente con questo id")
@@ -61,6 +91,7 @@ public class AnimalService implements AnimalInterface {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AnimalDto> findAll() {
         return animalRepository.findAll().stream()
                 .map(animalMapper::toAnimalDto)
@@ -68,6 +99,7 @@ public class AnimalService implements AnimalInterface {
     }
 
     @Override
+    @Transactional
     public AnimalDto updateById(Long id, AnimalDto animalDto) {
         if (animalDto != null){
             Animal animal = animalRepository.findById(id).orElseThrow(
@@ -90,22 +122,33 @@ public class AnimalService implements AnimalInterface {
             }
 
 
-            if (animal.getUser() != null) {
-                User oldUser = animal.getUser();
+            // a keeper deleted meanwhile counts as none
+            User oldUser = animal.getUser() != null
+                    ? userRepository.findById(animal.getUser().getId()).orElse(null)
+                    : null;
+            if (oldUser != null) {
                 oldUser.getAnimals().remove(animal);
                 userRepository.save(oldUser);
             }
 
-            if (animal.getEnclosure() != null) {
-                Enclosure oldEnclosure = animal.getEnclosure();
-                oldEnclosure.getAnimals().remove(animal);
-                enclosureRepository.save(oldEnclosure);
+            Long oldEnclosureId = animal.getEnclosure() != null ? animal.getEnclosure().getId() : null;
+            Long newEnclosureId = newEnclosure != null ? newEnclosure.getId() : null;
+            AnimalCategory newCategory = animalDto.getCategory() != null ? animalDto.getCategory() : animal.getCategory();
+
+            EnclosureCapacity.Ledger ledger = null;
+            if (!Objects.equals(oldEnclosureId, newEnclosureId) || newCategory != animal.getCategory()) {
+                ledger = enclosureCapacity.open(Arrays.asList(oldEnclosureId, newEnclosureId));
+                ledger.release(oldEnclosureId, animal.getCategory());
+                if (newEnclosureId != null) {
+                    ledger.place(newEnclosureId, newCategory);
+                }
             }
 
 
             animal.setUser(newUser);
             animal.setEnclosure(newEnclosure);
             animal.setName(animalDto.getName());
+            boolean weightChanged = !Objects.equals(animal.getWeight(), animalDto.getWeight());
             animal.setWeight(animalDto.getWeight());
 
             if (animalDto.getCategory() != null){
@@ -113,6 +156,9 @@ public class AnimalService implements AnimalInterface {
             }
 
             Animal saved = animalRepository.save(animal);
+            if (ledger != null) {
+                ledger.flush();
+            }
 
 
             if (newUser != null) {
@@ -120,35 +166,42 @@ public class AnimalService implements AnimalInterface {
                 userRepository.save(newUser);
             }
 
-            if (newEnclosure != null) {
-                newEnclosure.getAnimals().add(saved);
-                enclosureRepository.save(newEnclosure);
+            if (weightChanged) {
+                animalWeightInterface.recordWeight(saved.getId(), Instant.now(), saved.getWeight());
             }
 
-            return animalMapper.toAnimalDto(saved);
+            AnimalDto dto = animalMapper.toAnimalDto(saved);
+            eventPublisher.publishEvent(AnimalsChangedEvent.changed(List.of(dto)));
+            auditTrail.record(EntityType.ANIMAL, AuditAction.UPDATE, saved.getId());
+            outbox.publish(EntityType.ANIMAL, AuditAction.UPDATE, saved.getId(), dto);
+
+            return dto;
         } else {
             throw new InvalidInputException("Elemento passato non valido");
         }
     }
     @Override
+    @Transactional
     public AnimalDto deleteAnimal(Long id) {
         Animal animal = animalRepository.findById(id).orElseThrow(
                 () -> new InvalidInputException("Nessun animale presente con questo id")
         );
 
-        User oldUser = userRepository.findById(animal.getUser().getId()).orElseThrow(
-                () -> new InvalidInputException("Nessuno user con questo id")
-        );
-
-        Enclosure oldEnclosure = enclosureRepository.findById(animal.getEnclosure().getId()).orElseThrow(
-                () -> new InvalidInputException("Nessuna gabbia presente con questo id")
-        );
+        if (animal.getEnclosure() != null) {
+            Long enclosureId = animal.getEnclosure().getId();
+            EnclosureCapacity.Ledger ledger = enclosureCapacity.open(Set.of(enclosureId));
+            ledger.release(enclosureId, animal.getCategory());
+            ledger.flush();
+        }
 
-        oldUser.getAnimals().remove(animal);
-        oldEnclosure.getAnimals().remove(animal);
+        animal.setDeleted(true);
+        animalRepository.save(animal);
 
-        animalRepository.delete(animal);
+        AnimalDto dto = animalMapper.toAnimalDto(animal);
+        eventPublisher.publishEvent(AnimalsChangedEvent.removed(animal.getId()));
+        auditTrail.record(EntityType.ANIMAL, AuditAction.DELETE, animal.getId());
+        outbox.publish(EntityType.ANIMAL, AuditAction.DELETE, animal.getId(), dto);
 
-        return animalMapper.toAnimalDto(animal);
+        return dto;
     }
 }
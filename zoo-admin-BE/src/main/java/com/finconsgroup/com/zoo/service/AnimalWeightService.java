@@ -0,0 +1,330 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.finconsgroup.com.zoo.audit.AuditTrail;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.dto.WeightBucketDto;
+import com.finconsgroup.com.zoo.dto.WeightMeasurementDto;
+import com.finconsgroup.com.zoo.entity.Animal;
+import com.finconsgroup.com.zoo.entity.AnimalWeightChunk;
+import com.finconsgroup.com.zoo.entity.AnimalWeightChunkId;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.exception.InvalidInputException;
+import com.finconsgroup.com.zoo.interfaces.AnimalWeightInterface;
+import com.finconsgroup.com.zoo.mapper.AnimalMapper;
+import com.finconsgroup.com.zoo.outbox.Outbox;
+import com.finconsgroup.com.zoo.repository.AnimalRepository;
+import com.finconsgroup.com.zoo.repository.AnimalWeightChunkRepository;
+import com.finconsgroup.com.zoo.timeseries.WeightChunkCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class AnimalWeightService implements AnimalWeightInterface {
+
+    private static final long CHUNK_SPAN_MILLIS = Duration.ofDays(30).toMillis();
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(365);
+    private static final int MAX_BUCKETS = 10_000;
+
+    private static final String INSERT_CHUNK =
+            "INSERT INTO animal_weight_chunks (animal_id, chunk_start, first_at, last_at, samples, " +
+            "min_weight, max_weight, sum_weight, timestamps, weights) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AnimalRepository animalRepository;
+    private final AnimalWeightChunkRepository chunkRepository;
+    private final AnimalMapper animalMapper;
+    private final AuditTrail auditTrail;
+    private final Outbox outbox;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores a batch of readings, possibly for many animals, with a fixed number of
+     * queries per batch. A reading with the same timestamp as a stored one replaces
+     * it. When the batch holds an animal's most recent reading, that value also
+     * becomes the animal's current weight.
+     */
+    @Override
+    @Transactional
+    public int ingest(List<WeightMeasurementDto> measurements) {
+        if (measurements == null || measurements.isEmpty()) {
+            throw new InvalidInputException("Nessuna misurazione passata");
+        }
+
+        Map<Long, NavigableMap<Long, Double>> byAnimal = new HashMap<>();
+        for (WeightMeasurementDto measurement : measurements) {
+            validate(measurement);
+            byAnimal.computeIfAbsent(measurement.getAnimal(), id -> new TreeMap<>())
+                    .put(measurement.getMeasuredAt().toEpochMilli(), measurement.getWeight());
+        }
+
+        List<Animal> animals = animalRepository.lockAllById(byAnimal.keySet());
+        if (animals.size() != byAnimal.size()) {
+            throw new InvalidInputException("Nessun animale presente per uno o più id passati");
+        }
+
+        Map<Long, Instant> latestStored = new HashMap<>();
+        chunkRepository.findLatestAt(byAnimal.keySet())
+                .forEach(latest -> latestStored.put(latest.getAnimalId(), latest.getLatestAt()));
+
+        append(byAnimal);
+
+        List<AnimalDto> updated = new ArrayList<>();
+        for (Animal animal : animals) {
+            Map.Entry<Long, Double> newest = byAnimal.get(animal.getId()).lastEntry();
+            Instant latest = latestStored.get(animal.getId());
+            double weight = WeightChunkCodec.round(newest.getValue());
+            if ((latest == null || newest.getKey() >= latest.toEpochMilli())
+                    && (animal.getWeight() == null || animal.getWeight() != weight)) {
+                animal.setWeight(weight);
+                updated.add(animalMapper.toAnimalDto(animal));
+                auditTrail.record(EntityType.ANIMAL, AuditAction.UPDATE, animal.getId());
+            }
+        }
+        outbox.publishAll(EntityType.ANIMAL, AuditAction.UPDATE, updated, AnimalDto::getId);
+
+        return measurements.size();
+    }
+
+    /**
+     * Adds a single reading to the history without touching the animal itself; used
+     * when the weight is edited through the animal endpoints.
+     */
+    @Override
+    @Transactional
+    public void recordWeight(Long animalId, Instant measuredAt, Double weight) {
+        if (weight == null) {
+            return;
+        }
+        if (animalRepository.lockAllById(List.of(animalId)).isEmpty()) {
+            throw new InvalidInputException("Nessun animale presente con questo id");
+        }
+        NavigableMap<Long, Double> samples = new TreeMap<>();
+        samples.put(measuredAt.toEpochMilli(), weight);
+        append(Map.of(animalId, samples));
+    }
+
+    /**
+     * First readings of animals inserted in bulk by the caller's transaction, which
+     * already holds their rows; no existing animal is locked or checked. They have no
+     * chunks yet, so nothing is looked up and the new chunks go in as one JDBC batch,
+     * without being kept in the persistence context.
+     */
+    @Override
+    @Transactional
+    public void recordWeights(Map<Long, Double> weights, Instant measuredAt) {
+        long timestamp = measuredAt.toEpochMilli();
+        Instant chunkStart = chunkStart(timestamp);
+        List<AnimalWeightChunk> chunks = new ArrayList<>(weights.size());
+        weights.forEach((animalId, weight) -> {
+            if (weight != null) {
+                AnimalWeightChunk chunk = new AnimalWeightChunk();
+                chunk.setId(new AnimalWeightChunkId(animalId, chunkStart));
+                encode(chunk, new TreeMap<>(Map.of(timestamp, weight)));
+                chunks.add(chunk);
+            }
+        });
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_CHUNK, chunks, chunks.size(), (ps, chunk) -> {
+            ps.setLong(1, chunk.getId().getAnimalId());
+            ps.setTimestamp(2, Timestamp.from(chunk.getId().getChunkStart()));
+            ps.setTimestamp(3, Timestamp.from(chunk.getFirstAt()));
+            ps.setTimestamp(4, Timestamp.from(chunk.getLastAt()));
+            ps.setInt(5, chunk.getSamples());
+            ps.setDouble(6, chunk.getMinWeight());
+            ps.setDouble(7, chunk.getMaxWeight());
+            ps.setDouble(8, chunk.getSumWeight());
+            ps.setBytes(9, chunk.getTimestamps());
+            ps.setBytes(10, chunk.getWeights());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WeightMeasurementDto> findMeasurements(Long animalId, Instant from, Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        checkAnimal(animalId);
+
+        List<WeightMeasurementDto> measurements = new ArrayList<>();
+        for (AnimalWeightChunk chunk : chunkRepository.findOverlapping(animalId, start, end)) {
+            long[] timestamps = WeightChunkCodec.decodeTimestamps(chunk.getTimestamps(), chunk.getSamples());
+            double[] weights = WeightChunkCodec.decodeWeights(chunk.getWeights(), chunk.getSamples());
+            for (int i = 0; i < timestamps.length; i++) {
+                if (timestamps[i] >= start.toEpochMilli() && timestamps[i] <= end.toEpochMilli()) {
+                    measurements.add(new WeightMeasurementDto(animalId, Instant.ofEpochMilli(timestamps[i]), weights[i]));
+                }
+            }
+        }
+        return measurements;
+    }
+
+    /**
+     * Min, max and average per bucket, with buckets aligned on {@code from}. Chunks
+     * that fall entirely inside one bucket are folded from their stored aggregates
+     * without being decoded, which keeps long ranges with wide buckets cheap.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<WeightBucketDto> downsample(Long animalId, Instant from, Instant to, Duration bucket) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        if (bucket == null || bucket.isZero() || bucket.isNegative() || !start.isBefore(end)) {
+            throw new InvalidInputException("Intervallo o ampiezza del bucket non validi");
+        }
+
+        long startMillis = start.toEpochMilli();
+        long endMillis = end.toEpochMilli();
+        long width = bucket.toMillis();
+        long bucketCount = (endMillis - startMillis) / width + 1;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new InvalidInputException("Troppi bucket richiesti, aumentare l'ampiezza del bucket");
+        }
+        checkAnimal(animalId);
+
+        int[] counts = new int[(int) bucketCount];
+        double[] mins = new double[counts.length];
+        double[] maxs = new double[counts.length];
+        double[] sums = new double[counts.length];
+
+        for (AnimalWeightChunk chunk : chunkRepository.findOverlapping(animalId, start, end)) {
+            long first = chunk.getFirstAt().toEpochMilli();
+            long last = chunk.getLastAt().toEpochMilli();
+            int firstBucket = (int) ((first - startMillis) / width);
+
+            if (first >= startMillis && last <= endMillis && firstBucket == (int) ((last - startMillis) / width)) {
+                fold(counts, mins, maxs, sums, firstBucket, chunk.getSamples(),
+                        chunk.getMinWeight(), chunk.getMaxWeight(), chunk.getSumWeight());
+                continue;
+            }
+
+            long[] timestamps = WeightChunkCodec.decodeTimestamps(chunk.getTimestamps(), chunk.getSamples());
+            double[] weights = WeightChunkCodec.decodeWeights(chunk.getWeights(), chunk.getSamples());
+            for (int i = 0; i < timestamps.length; i++) {
+                if (timestamps[i] >= startMillis && timestamps[i] <= endMillis) {
+                    fold(counts, mins, maxs, sums, (int) ((timestamps[i] - startMillis) / width), 1,
+                            weights[i], weights[i], weights[i]);
+                }
+            }
+        }
+
+        List<WeightBucketDto> buckets = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                Instant bucketStart = Instant.ofEpochMilli(startMillis + i * width);
+                buckets.add(new WeightBucketDto(bucketStart, bucketStart.plus(bucket), counts[i],
+                        mins[i], maxs[i], sums[i] / counts[i]));
+            }
+        }
+        return buckets;
+    }
+
+    private void append(Map<Long, NavigableMap<Long, Double>> byAnimal) {
+        Map<AnimalWeightChunkId, NavigableMap<Long, Double>> byChunk = new HashMap<>();
+        byAnimal.forEach((animalId, samples) -> samples.forEach((timestamp, weight) -> {
+            byChunk.computeIfAbsent(new AnimalWeightChunkId(animalId, chunkStart(timestamp)), id -> new TreeMap<>())
+                    .put(timestamp, weight);
+        }));
+
+        Map<AnimalWeightChunkId, AnimalWeightChunk> existing = new HashMap<>();
+        Set<Instant> chunkStarts = new HashSet<>();
+        byChunk.keySet().forEach(id -> chunkStarts.add(id.getChunkStart()));
+        chunkRepository.findChunks(byAnimal.keySet(), chunkStarts)
+                .forEach(chunk -> existing.put(chunk.getId(), chunk));
+
+        List<AnimalWeightChunk> changed = new ArrayList<>(byChunk.size());
+        byChunk.forEach((id, added) -> {
+            AnimalWeightChunk chunk = existing.get(id);
+            NavigableMap<Long, Double> merged = new TreeMap<>();
+            if (chunk != null) {
+                long[] timestamps = WeightChunkCodec.decodeTimestamps(chunk.getTimestamps(), chunk.getSamples());
+                double[] weights = WeightChunkCodec.decodeWeights(chunk.getWeights(), chunk.getSamples());
+                for (int i = 0; i < timestamps.length; i++) {
+                    merged.put(timestamps[i], weights[i]);
+                }
+            } else {
+                chunk = new AnimalWeightChunk();
+                chunk.setId(id);
+                chunk.setCreated(true);
+            }
+            merged.putAll(added);
+            encode(chunk, merged);
+            changed.add(chunk);
+        });
+        chunkRepository.saveAll(changed);
+    }
+
+    private static Instant chunkStart(long timestamp) {
+        return Instant.ofEpochMilli(Math.floorDiv(timestamp, CHUNK_SPAN_MILLIS) * CHUNK_SPAN_MILLIS);
+    }
+
+    private void encode(AnimalWeightChunk chunk, NavigableMap<Long, Double> samples) {
+        long[] timestamps = new long[samples.size()];
+        double[] weights = new double[samples.size()];
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+
+        int i = 0;
+        for (Map.Entry<Long, Double> sample : samples.entrySet()) {
+            double weight = WeightChunkCodec.round(sample.getValue());
+            timestamps[i] = sample.getKey();
+            weights[i++] = weight;
+            min = Math.min(min, weight);
+            max = Math.max(max, weight);
+            sum += weight;
+        }
+
+        chunk.setFirstAt(Instant.ofEpochMilli(samples.firstKey()));
+        chunk.setLastAt(Instant.ofEpochMilli(samples.lastKey()));
+        chunk.setSamples(samples.size());
+        chunk.setMinWeight(min);
+        chunk.setMaxWeight(max);
+        chunk.setSumWeight(sum);
+        chunk.setTimestamps(WeightChunkCodec.encodeTimestamps(timestamps, timestamps.length));
+        chunk.setWeights(WeightChunkCodec.encodeWeights(weights, weights.length));
+    }
+
+    private static void fold(int[] counts, double[] mins, double[] maxs, double[] sums, int bucket,
+                             int count, double min, double max, double sum) {
+        if (counts[bucket] == 0) {
+            mins[bucket] = min;
+            maxs[bucket] = max;
+        } else {
+            mins[bucket] = Math.min(mins[bucket], min);
+            maxs[bucket] = Math.max(maxs[bucket], max);
+        }
+        counts[bucket] += count;
+        sums[bucket] += sum;
+    }
+
+    private void checkAnimal(Long animalId) {
+        if (!animalRepository.existsById(animalId)) {
+            throw new InvalidInputException("Nessun animale presente con questo id");
+        }
+    }
+
+    private static void validate(WeightMeasurementDto measurement) {
+        if (measurement == null || measurement.getAnimal() == null || measurement.getMeasuredAt() == null
+                || measurement.getWeight() == null || !(measurement.getWeight() > 0)) {
+            throw new InvalidInputException("Misurazione non valida: servono animale, istante e peso positivo");
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.finconsgroup.com.zoo.service;
 
 import com.finconsgroup.com.zoo.entity.User;
 import com.finconsgroup.com.zoo.repository.UserRepository;
+import com.finconsgroup.com.zoo.site.SiteUserDetails;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -14,7 +16,7 @@ import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserService implements UserDetailsService {
+public class CustomUserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -32,14 +34,25 @@ public class CustomUserService implements UserDetailsService {
         String authority = user.getRole().name();
         SimpleGrantedAuthority grantedAuthority = new SimpleGrantedAuthority(authority);
 
-        return new org.springframework.security.core.userdetails.User(
+        return new SiteUserDetails(
                 user.getUsername(),
                 user.getPassword(),
-                true,
-                true,
-                true,
-                true,
-                Collections.singletonList(grantedAuthority)
+                Collections.singletonList(grantedAuthority),
+                user.getSite(),
+                user.getOperatorType()
         );
     }
-}
\ No newline at end of file
+
+    // called after a successful login whose stored hash uses an outdated cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        return new SiteUserDetails(
+                user.getUsername(),
+                newPassword,
+                user.getAuthorities(),
+                ((SiteUserDetails) user).getSite(),
+                ((SiteUserDetails) user).getOperatorType()
+        );
+    }
+}
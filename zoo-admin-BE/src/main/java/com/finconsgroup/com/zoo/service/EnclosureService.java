@@ -1,21 +1,34 @@
 package com.finconsgroup.com.zoo.service;
 
+import com.finconsgroup.com.zoo.audit.AuditTrail;
+import com.finconsgroup.com.zoo.capacity.EnclosureCapacity;
 import com.finconsgroup.com.zoo.dto.EnclosureDtoInput;
 import com.finconsgroup.com.zoo.dto.EnclosureDtoOutput;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
 import com.finconsgroup.com.zoo.entity.Animal;
 import com.finconsgroup.com.zoo.entity.Enclosure;
 import com.finconsgroup.com.zoo.entity.User;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.event.EntityChangedEvent;
 import com.finconsgroup.com.zoo.exception.InvalidInputException;
 import com.finconsgroup.com.zoo.interfaces.EnclosureInterface;
+import com.finconsgroup.com.zoo.mapper.AnimalMapper;
 import com.finconsgroup.com.zoo.mapper.EnclosureMapper;
+import com.finconsgroup.com.zoo.outbox.Outbox;
 import com.finconsgroup.com.zoo.repository.AnimalRepository;
 import com.finconsgroup.com.zoo.repository.EnclosureRepository;
 import com.finconsgroup.com.zoo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -25,8 +38,14 @@ public class EnclosureService implements EnclosureInterface {
     private final UserRepository userRepository;
     private final AnimalRepository animalRepository;
     private final EnclosureRepository enclosureRepository;
+    private final AuditTrail auditTrail;
+    private final Outbox outbox;
+    private final EnclosureCapacity enclosureCapacity;
+    private final AnimalMapper animalMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public EnclosureDtoOutput addEnclosure(EnclosureDtoInput enclosureDtoInput) {
         if (enclosureDtoInput != null) {
             User user = userRepository.findById(enclosureDtoInput.getUser()).orElseThrow(
@@ -44,6 +63,7 @@ public class EnclosureService implements EnclosureInterface {
             Enclosure enclosure = enclosureMapper.toEnclosure(enclosureDtoInput, user, animals);
 
             Enclosure saved = enclosureRepository.save(enclosure);
+            placeAnimals(saved, animals);
 
             user.getEnclosures().add(saved);
 
@@ -54,7 +74,15 @@ public class EnclosureService implements EnclosureInterface {
 
             userRepository.save(user);
 
-            return enclosureMapper.toDto(saved);
+            eventPublisher.publishEvent(AnimalsChangedEvent.changed(animals.stream().map(animalMapper::toAnimalDto).toList()));
+
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityType.ENCLOSURE, saved.getId()));
+
+            EnclosureDtoOutput dto = enclosureMapper.toDto(saved);
+            auditTrail.record(EntityType.ENCLOSURE, AuditAction.CREATE, saved.getId());
+            outbox.publish(EntityType.ENCLOSURE, AuditAction.CREATE, saved.getId(), dto);
+
+            return dto;
         } else
         {
             throw new InvalidInputException("Elemento passato non valido");
@@ -62,31 +90,35 @@ public class EnclosureService implements EnclosureInterface {
     }
 
     @Override
-    public EnclosureDtoOutput findById(Long id) {
+    @Transactional(readOnly = true)
+    public EnclosureDtoOutput findById(Long id, FieldSelection selection) {
         Enclosure enclosure = enclosureRepository.findById(id).orElseThrow(
                 () -> new InvalidInputException("Nessuna gabbia presente con questo id")
         );
 
-        return enclosureMapper.toDto(enclosure);
+        return enclosureMapper.toDto(enclosure, selection);
     }
 
     @Override
-    public List<EnclosureDtoOutput> findAll() {
+    @Transactional(readOnly = true)
+    public List<EnclosureDtoOutput> findAll(FieldSelection selection) {
         return enclosureRepository.findAll().stream()
-                .map(enclosureMapper::toDto)
+                .map(e -> enclosureMapper.toDto(e, selection))
                 .toList();
     }
 
     @Override
+    @Transactional
     public EnclosureDtoOutput updateById(Long id, EnclosureDtoInput enclosureDtoInput) {
         if (enclosureDtoInput != null){
             Enclosure enclosure = enclosureRepository.findById(id).orElseThrow(
                     () -> new InvalidInputException("Nessuna gabbia presente con questo id")
             );
 
-            User oldUser = userRepository.findById(enclosure.getUser().getId()).orElseThrow(
-                    () -> new InvalidInputException("Nessun utente presente con questo id")
-            );
+            // a keeper deleted meanwhile counts as none
+            User oldUser = enclosure.getUser() != null
+                    ? userRepository.findById(enclosure.getUser().getId()).orElse(null)
+                    : null;
 
             User newUser = userRepository.findById(enclosureDtoInput.getUser()).orElseThrow(
                     () -> new InvalidInputException("Nessun utente presente con questo id")
@@ -94,6 +126,10 @@ public class EnclosureService implements EnclosureInterface {
 
             List<Animal> newList = new ArrayList<>(animalRepository.findAllById(enclosureDtoInput.getAnimals()));
 
+            enclosure.setArea(enclosureDtoInput.getArea());
+            enclosure.setMaxAnimals(enclosureDtoInput.getMaxAnimals());
+            placeAnimals(enclosure, newList);
+
             List<Animal> oldList = enclosure.getAnimals();
 
             oldList.forEach(a -> {
@@ -101,11 +137,12 @@ public class EnclosureService implements EnclosureInterface {
                 animalRepository.save(a);
             });
 
-            oldUser.getEnclosures().remove(enclosure);
+            if (oldUser != null) {
+                oldUser.getEnclosures().remove(enclosure);
+            }
 
             enclosure.setName(enclosureDtoInput.getName());
             enclosure.setDescription(enclosureDtoInput.getDescription());
-            enclosure.setArea(enclosureDtoInput.getArea());
             enclosure.setUser(newUser);
             enclosure.setAnimals(newList);
 
@@ -118,33 +155,62 @@ public class EnclosureService implements EnclosureInterface {
 
             newUser.getEnclosures().add(saved);
 
-            return enclosureMapper.toDto(enclosure);
+            List<Animal> touched = new ArrayList<>(oldList);
+            touched.addAll(newList);
+            eventPublisher.publishEvent(AnimalsChangedEvent.changed(touched.stream().map(animalMapper::toAnimalDto).toList()));
+
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityType.ENCLOSURE, saved.getId()));
+
+            EnclosureDtoOutput dto = enclosureMapper.toDto(enclosure);
+            auditTrail.record(EntityType.ENCLOSURE, AuditAction.UPDATE, saved.getId());
+            outbox.publish(EntityType.ENCLOSURE, AuditAction.UPDATE, saved.getId(), dto);
+
+            return dto;
         } else {
             throw new InvalidInputException("il dto non è valido");
         }
     }
 
     @Override
+    @Transactional
     public EnclosureDtoOutput deleteEnclosure(Long id) {
         Enclosure enclosure = enclosureRepository.findById(id).orElseThrow(
                 () -> new InvalidInputException("Nessuna gabbia trovata con questo id")
         );
 
-        List<Animal> animals = enclosure.getAnimals();
-        for (Animal animal : animals) {
-            animal.setEnclosure(null);
-            animalRepository.save(animal);
-        }
-
-        User user = enclosure.getUser();
-        if (user != null) {
-            user.getEnclosures().remove(enclosure);
-            userRepository.save(user);
-        }
+        // TombstonePurge detaches the animals and removes the row off-peak
+        enclosure.setDeleted(true);
+        enclosureRepository.save(enclosure);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.ENCLOSURE, enclosure.getId()));
 
-        enclosureRepository.delete(enclosure);
+        EnclosureDtoOutput dto = enclosureMapper.toDto(enclosure, FieldSelection.unexpanded());
+        auditTrail.record(EntityType.ENCLOSURE, AuditAction.DELETE, enclosure.getId());
+        outbox.publish(EntityType.ENCLOSURE, AuditAction.DELETE, enclosure.getId(), dto);
 
-        return enclosureMapper.toDto(enclosure);
+        return dto;
     }
 
+    // the enclosure ends up holding exactly these animals; each one leaves the
+    // enclosure it was in before
+    private void placeAnimals(Enclosure enclosure, List<Animal> animals) {
+        Set<Long> enclosureIds = new HashSet<>();
+        enclosureIds.add(enclosure.getId());
+        animals.forEach(a -> {
+            if (a.getEnclosure() != null) {
+                enclosureIds.add(a.getEnclosure().getId());
+            }
+        });
+
+        EnclosureCapacity.Ledger ledger = enclosureCapacity.open(enclosureIds);
+        ledger.limit(enclosure.getId(), enclosure.getArea(), enclosure.getMaxAnimals());
+        ledger.clear(enclosure.getId());
+        for (Animal animal : animals) {
+            Long previous = animal.getEnclosure() != null ? animal.getEnclosure().getId() : null;
+            if (previous != null && !previous.equals(enclosure.getId())) {
+                ledger.release(previous, animal.getCategory());
+            }
+            ledger.place(enclosure.getId(), animal.getCategory());
+        }
+        ledger.flush();
+    }
 }
@@ -0,0 +1,21 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.finconsgroup.com.zoo.dto.PopulationStatsDto;
+import com.finconsgroup.com.zoo.interfaces.PopulationStatsInterface;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import com.finconsgroup.com.zoo.stats.PopulationSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class PopulationStatsService implements PopulationStatsInterface {
+
+    private final PopulationSnapshot populationSnapshot;
+    private final SiteContext siteContext;
+
+    @Override
+    public PopulationStatsDto getStats() {
+        return populationSnapshot.compute(siteContext.requireSite());
+    }
+}
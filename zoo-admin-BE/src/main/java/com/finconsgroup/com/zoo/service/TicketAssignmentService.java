@@ -0,0 +1,246 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.finconsgroup.com.zoo.audit.AuditTrail;
+import com.finconsgroup.com.zoo.config.AssignmentProperties;
+import com.finconsgroup.com.zoo.dto.AssignmentRunDto;
+import com.finconsgroup.com.zoo.dto.TicketAssignmentDto;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.Role;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import com.finconsgroup.com.zoo.escalation.UrgencyEscalator;
+import com.finconsgroup.com.zoo.event.TicketCreatedEvent;
+import com.finconsgroup.com.zoo.event.TicketsChangedEvent;
+import com.finconsgroup.com.zoo.interfaces.TicketAssignmentInterface;
+import com.finconsgroup.com.zoo.outbox.Outbox;
+import com.finconsgroup.com.zoo.service.TicketMatcher.Operator;
+import com.finconsgroup.com.zoo.service.TicketMatcher.PendingTicket;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import com.finconsgroup.com.zoo.workload.OperatorWorkload;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class TicketAssignmentService implements TicketAssignmentInterface {
+
+    private static final String UNASSIGNED_TICKETS =
+            "SELECT id, ticket_urgency, recommended_role, creation_date, site_id FROM tickets " +
+            "WHERE assigned_user_id IS NULL AND NOT deleted";
+
+    private static final String SITE_UNASSIGNED_TICKETS = UNASSIGNED_TICKETS + " AND site_id = ?";
+
+    private static final String OPERATORS =
+            "SELECT u.id, u.operator_type, COUNT(t.id), u.site_id FROM users u " +
+            "LEFT JOIN tickets t ON t.assigned_user_id = u.id AND NOT t.deleted " +
+            "WHERE u.role = " + Role.OPERATOR.getCode() + " AND NOT u.deleted";
+
+    private static final String OPERATOR_LOAD = OPERATORS + " GROUP BY u.id, u.operator_type";
+
+    private static final String SITE_OPERATOR_LOAD = OPERATORS + " AND u.site_id = ? GROUP BY u.id, u.operator_type";
+
+    // one round trip per batch; the IS NULL guard drops tickets taken since they were read
+    private static final String ASSIGN =
+            "UPDATE tickets t SET assigned_user_id = a.user_id " +
+            "FROM unnest(?::bigint[], ?::bigint[]) AS a(ticket_id, user_id) " +
+            "WHERE t.id = a.ticket_id AND t.assigned_user_id IS NULL AND NOT t.deleted RETURNING t.id, t.site_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditTrail auditTrail;
+    private final Outbox outbox;
+    private final OperatorWorkload operatorWorkload;
+    private final UrgencyEscalator urgencyEscalator;
+    private final AssignmentProperties properties;
+    private final SiteContext siteContext;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantLock cycle = new ReentrantLock();
+    private final AtomicBoolean triggered = new AtomicBoolean();
+    private final ExecutorService trigger = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ticket-assignment");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TicketAssignmentService(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   AuditTrail auditTrail,
+                                   Outbox outbox,
+                                   OperatorWorkload operatorWorkload,
+                                   UrgencyEscalator urgencyEscalator,
+                                   AssignmentProperties properties,
+                                   SiteContext siteContext,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditTrail = auditTrail;
+        this.outbox = outbox;
+        this.operatorWorkload = operatorWorkload;
+        this.urgencyEscalator = urgencyEscalator;
+        this.properties = properties;
+        this.siteContext = siteContext;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public AssignmentRunDto preview() {
+        return execute(true, siteContext.requireSite());
+    }
+
+    @Override
+    public AssignmentRunDto run() {
+        return execute(false, siteContext.requireSite());
+    }
+
+    @Scheduled(fixedDelayString = "${zoo.assignment.interval:30000}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            runQuietly();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketCreated(TicketCreatedEvent event) {
+        // tickets created in a burst share a single cycle
+        if (properties.isEnabled() && triggered.compareAndSet(false, true)) {
+            trigger.execute(() -> {
+                triggered.set(false);
+                runQuietly();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        trigger.shutdownNow();
+    }
+
+    private void runQuietly() {
+        try {
+            AssignmentRunDto result = execute(properties.isDryRun(), null);
+            if (result.getAssignments().isEmpty()) {
+                return;
+            }
+            log.info("Assegnazione automatica{}: {} ticket proposti, {} assegnati, {} conflitti in {} ms",
+                    result.isDryRun() ? " (dry-run)" : "", result.getAssignments().size(),
+                    result.getAssigned(), result.getConflicts(), result.getDurationMillis());
+        } catch (RuntimeException e) {
+            log.warn("Assegnazione automatica dei ticket fallita", e);
+        }
+    }
+
+    // a null site runs every site; tickets only ever go to operators of their own site
+    private AssignmentRunDto execute(boolean dryRun, Long site) {
+        cycle.lock();
+        try {
+            long start = System.nanoTime();
+
+            Object[] siteArgs = site != null ? new Object[]{site} : new Object[0];
+            List<PendingTicket> tickets = jdbcTemplate.query(site != null ? SITE_UNASSIGNED_TICKETS : UNASSIGNED_TICKETS,
+                    (rs, i) -> {
+                        Date creationDate = rs.getDate(4);
+                        return new PendingTicket(
+                                rs.getLong(1),
+                                CodedEnum.fromCode(TicketUrgency.class, rs.getObject(2, Short.class)),
+                                CodedEnum.fromCode(OperatorType.class, rs.getObject(3, Short.class)),
+                                creationDate != null ? creationDate.toLocalDate() : null,
+                                rs.getLong(5));
+                    }, siteArgs);
+            List<Operator> operators = jdbcTemplate.query(site != null ? SITE_OPERATOR_LOAD : OPERATOR_LOAD,
+                    (rs, i) -> new Operator(
+                            rs.getLong(1),
+                            CodedEnum.fromCode(OperatorType.class, rs.getObject(2, Short.class)),
+                            rs.getInt(3),
+                            rs.getLong(4)), siteArgs);
+
+            Map<Long, List<Operator>> operatorsBySite = operators.stream()
+                    .collect(Collectors.groupingBy(operator -> operator.site));
+            List<TicketAssignmentDto> proposals = new ArrayList<>();
+            tickets.stream()
+                    .collect(Collectors.groupingBy(PendingTicket::site))
+                    .forEach((ticketSite, siteTickets) -> proposals.addAll(
+                            TicketMatcher.match(siteTickets, operatorsBySite.getOrDefault(ticketSite, List.of()),
+                                    properties.getMaxOpenPerOperator())));
+
+            AssignmentRunDto result = new AssignmentRunDto();
+            result.setDryRun(dryRun);
+            result.setUnassignedTickets(tickets.size());
+            result.setOperators(operators.size());
+
+            if (dryRun) {
+                result.setAssignments(proposals);
+            } else {
+                List<TicketAssignmentDto> committed = commit(proposals);
+                result.setAssignments(committed);
+                result.setAssigned(committed.size());
+                result.setConflicts(proposals.size() - committed.size());
+            }
+
+            result.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+            return result;
+        } finally {
+            cycle.unlock();
+        }
+    }
+
+    private List<TicketAssignmentDto> commit(List<TicketAssignmentDto> proposals) {
+        List<TicketAssignmentDto> committed = new ArrayList<>(proposals.size());
+        int batchSize = Math.max(1, properties.getBatchSize());
+
+        for (int from = 0; from < proposals.size(); from += batchSize) {
+            List<TicketAssignmentDto> batch = proposals.subList(from, Math.min(from + batchSize, proposals.size()));
+            List<TicketAssignmentDto> applied = transactionTemplate.execute(status -> commitBatch(batch));
+            if (applied != null) {
+                committed.addAll(applied);
+            }
+        }
+        return committed;
+    }
+
+    private List<TicketAssignmentDto> commitBatch(List<TicketAssignmentDto> batch) {
+        Long[] ticketIds = batch.stream().map(TicketAssignmentDto::getTicket).toArray(Long[]::new);
+        Long[] userIds = batch.stream().map(TicketAssignmentDto::getUser).toArray(Long[]::new);
+        Map<Long, Long> updated = new HashMap<>();
+        jdbcTemplate.query(ASSIGN, rs -> {
+            updated.put(rs.getLong(1), rs.getLong(2));
+        }, ticketIds, userIds);
+
+        List<TicketAssignmentDto> applied = new ArrayList<>(updated.size());
+        for (TicketAssignmentDto assignment : batch) {
+            Long site = updated.get(assignment.getTicket());
+            if (site != null) {
+                auditTrail.record(EntityType.TICKET, AuditAction.ASSIGN, assignment.getTicket(), site);
+                operatorWorkload.assigned(assignment.getUser(), assignment.getTicketUrgency());
+                urgencyEscalator.untrack(assignment.getTicket());
+                applied.add(assignment);
+            }
+        }
+        outbox.publishAll(EntityType.TICKET, AuditAction.ASSIGN, applied, TicketAssignmentDto::getTicket);
+        if (!applied.isEmpty()) {
+            eventPublisher.publishEvent(new TicketsChangedEvent(
+                    applied.stream().map(TicketAssignmentDto::getTicket).toList(),
+                    applied.stream().map(TicketAssignmentDto::getUser).distinct().toList()));
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,121 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.finconsgroup.com.zoo.dto.TicketAssignmentDto;
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Greedy matching: tickets are taken by urgency, then age, and each goes to the
+ * least loaded operator of the recommended type. Tickets without a recommended
+ * role may go to any operator.
+ */
+final class TicketMatcher {
+
+    private static final Comparator<PendingTicket> PRIORITY = Comparator
+            .comparingInt(PendingTicket::urgencyRank).reversed()
+            .thenComparing(PendingTicket::creationDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(PendingTicket::id);
+
+    private TicketMatcher() {
+    }
+
+    static List<TicketAssignmentDto> match(List<PendingTicket> tickets, List<Operator> operators, int maxOpen) {
+        Map<OperatorType, PriorityQueue<Slot>> byType = new EnumMap<>(OperatorType.class);
+        PriorityQueue<Slot> anyType = new PriorityQueue<>();
+        for (Operator operator : operators) {
+            if (operator.open >= maxOpen) {
+                continue;
+            }
+            if (operator.type != null) {
+                byType.computeIfAbsent(operator.type, t -> new PriorityQueue<>()).add(new Slot(operator));
+            }
+            anyType.add(new Slot(operator));
+        }
+
+        List<PendingTicket> ordered = new ArrayList<>(tickets);
+        ordered.sort(PRIORITY);
+
+        List<TicketAssignmentDto> proposals = new ArrayList<>();
+        for (PendingTicket ticket : ordered) {
+            PriorityQueue<Slot> heap = ticket.recommendedRole() != null ? byType.get(ticket.recommendedRole()) : anyType;
+            Operator operator = pollLeastLoaded(heap, maxOpen);
+            if (operator == null) {
+                continue;
+            }
+
+            operator.open++;
+            if (operator.open < maxOpen) {
+                heap.add(new Slot(operator));
+            }
+            proposals.add(new TicketAssignmentDto(ticket.id(), operator.id, ticket.urgency(), ticket.recommendedRole()));
+        }
+        return proposals;
+    }
+
+    // an operator sits in both its type heap and the shared heap, so entries whose
+    // snapshot no longer matches the live count are re-queued instead of trusted
+    private static Operator pollLeastLoaded(PriorityQueue<Slot> heap, int maxOpen) {
+        if (heap == null) {
+            return null;
+        }
+        Slot slot;
+        while ((slot = heap.poll()) != null) {
+            Operator operator = slot.operator;
+            if (slot.open == operator.open) {
+                return operator;
+            }
+            if (operator.open < maxOpen) {
+                heap.add(new Slot(operator));
+            }
+        }
+        return null;
+    }
+
+    record PendingTicket(long id, TicketUrgency urgency, OperatorType recommendedRole, LocalDate creationDate,
+                         long site) {
+
+        int urgencyRank() {
+            return urgency != null ? urgency.ordinal() : -1;
+        }
+    }
+
+    static final class Operator {
+
+        final long id;
+        final OperatorType type;
+        final long site;
+        private int open;
+
+        Operator(long id, OperatorType type, int open, long site) {
+            this.id = id;
+            this.type = type;
+            this.open = open;
+            this.site = site;
+        }
+    }
+
+    private static final class Slot implements Comparable<Slot> {
+
+        private final Operator operator;
+        private final int open;
+
+        private Slot(Operator operator) {
+            this.operator = operator;
+            this.open = operator.open;
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            int byLoad = Integer.compare(open, other.open);
+            return byLoad != 0 ? byLoad : Long.compare(operator.id, other.operator.id);
+        }
+    }
+}
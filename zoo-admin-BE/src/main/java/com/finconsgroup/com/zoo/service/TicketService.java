@@ -1,21 +1,36 @@
 package com.finconsgroup.com.zoo.service;
 
+import com.finconsgroup.com.zoo.audit.AuditTrail;
 import com.finconsgroup.com.zoo.dto.TicketDto;
+import com.finconsgroup.com.zoo.dto.WorkloadDto;
 import com.finconsgroup.com.zoo.entity.Ticket;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
 import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import com.finconsgroup.com.zoo.escalation.UrgencyEscalator;
+import com.finconsgroup.com.zoo.event.TicketCreatedEvent;
+import com.finconsgroup.com.zoo.event.TicketsChangedEvent;
 import com.finconsgroup.com.zoo.interfaces.TicketInterface;
 import com.finconsgroup.com.zoo.mapper.TicketMapper;
+import com.finconsgroup.com.zoo.outbox.Outbox;
 import com.finconsgroup.com.zoo.repository.TicketRepository;
 import com.finconsgroup.com.zoo.repository.UserRepository;
+import com.finconsgroup.com.zoo.workload.OperatorWorkload;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import com.finconsgroup.com.zoo.entity.User;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,8 +40,14 @@ public class TicketService implements TicketInterface {
     private final TicketRepository ticketRepository;
     private final UserRepository userRepository;
     private final TicketMapper ticketMapper;
+    private final AuditTrail auditTrail;
+    private final Outbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OperatorWorkload operatorWorkload;
+    private final UrgencyEscalator urgencyEscalator;
 
     @Override
+    @Transactional
     public TicketDto addTicket(TicketDto ticketDto) {
         Ticket ticket = new Ticket();
         ticket.setTitle(ticketDto.getTitle());
@@ -34,13 +55,21 @@ public class TicketService implements TicketInterface {
         ticket.setRecommendedRole(ticketDto.getRecommendedRole());
         ticket.setTicketUrgency(ticketDto.getTicketUrgency());
         ticket.setCreationDate(ticketDto.getCreationDate() != null ? ticketDto.getCreationDate() : LocalDate.now());
+        ticket.setUrgencySince(Instant.now());
         ticket.setUser(null);
 
         Ticket savedTicket = ticketRepository.save(ticket);
-        return ticketMapper.toDto(savedTicket);
+        TicketDto dto = ticketMapper.toDto(savedTicket);
+        auditTrail.record(EntityType.TICKET, AuditAction.CREATE, savedTicket.getId());
+        outbox.publish(EntityType.TICKET, AuditAction.CREATE, savedTicket.getId(), dto);
+        urgencyEscalator.track(savedTicket.getId(), savedTicket.getRecommendedRole(), savedTicket.getTicketUrgency(), savedTicket.getUrgencySince());
+        eventPublisher.publishEvent(new TicketCreatedEvent(savedTicket.getId()));
+        eventPublisher.publishEvent(TicketsChangedEvent.of(savedTicket.getId()));
+        return dto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TicketDto getTicketById(Long id) {
         Optional<Ticket> optionalTicket = ticketRepository.findById(id);
 
@@ -52,6 +81,7 @@ public class TicketService implements TicketInterface {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDto> getAllTickets() {
         List<Ticket> tickets = ticketRepository.findAll();
         return tickets.stream()
@@ -60,6 +90,7 @@ public class TicketService implements TicketInterface {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDto> getUnassignedTickets() {
         User currentUser = getCurrentUser();
 
@@ -88,6 +119,7 @@ public class TicketService implements TicketInterface {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDto> getMyAssignedTickets() {
         User currentUser = getCurrentUser();
         List<Ticket> myTickets = ticketRepository.findByUser(currentUser);
@@ -97,6 +129,7 @@ public class TicketService implements TicketInterface {
     }
 
     @Override
+    @Transactional
     public TicketDto assignTicketToCurrentUser(Long ticketId) {
         Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
 
@@ -106,18 +139,26 @@ public class TicketService implements TicketInterface {
 
         Ticket ticket = optionalTicket.get();
 
-        if (ticket.getUser() != null) {
+        // an operator deleted meanwhile counts as none until TombstonePurge detaches the ticket
+        if (ticket.getUser() != null && userRepository.existsById(ticket.getUser().getId())) {
             throw new RuntimeException("Il ticket è già assegnato a un altro utente");
         }
 
-        User currentUser = getCurrentUser();
-        ticket.setUser(currentUser);
+        return assign(ticket, getCurrentUser());
+    }
 
-        Ticket assignedTicket = ticketRepository.save(ticket);
-        return ticketMapper.toDto(assignedTicket);
+    @Override
+    @Transactional
+    public TicketDto claimNextTicket() {
+        User currentUser = getCurrentUser();
+        // an operator without a type sees every ticket on the dashboard, so any ticket may be claimed
+        OperatorType role = currentUser.isOperator() ? currentUser.getOperatorType() : null;
+        List<Ticket> next = ticketRepository.lockNextUnassigned(role, Limit.of(1));
+        return next.isEmpty() ? null : assign(next.get(0), currentUser);
     }
 
     @Override
+    @Transactional
     public TicketDto updateTicketById(Long id, TicketDto ticketDto) {
         Optional<Ticket> optionalTicket = ticketRepository.findById(id);
 
@@ -126,6 +167,9 @@ public class TicketService implements TicketInterface {
         }
 
         Ticket existingTicket = optionalTicket.get();
+        Long previousUserId = existingTicket.getUser() != null ? existingTicket.getUser().getId() : null;
+        TicketUrgency previousUrgency = existingTicket.getTicketUrgency();
+        OperatorType previousRole = existingTicket.getRecommendedRole();
 
         if (ticketDto.getTitle() != null) {
             existingTicket.setTitle(ticketDto.getTitle());
@@ -136,8 +180,9 @@ public class TicketService implements TicketInterface {
         if (ticketDto.getRecommendedRole() != null) {
             existingTicket.setRecommendedRole(ticketDto.getRecommendedRole());
         }
-        if (ticketDto.getTicketUrgency() != null) {
+        if (ticketDto.getTicketUrgency() != null && ticketDto.getTicketUrgency() != previousUrgency) {
             existingTicket.setTicketUrgency(ticketDto.getTicketUrgency());
+            existingTicket.setUrgencySince(Instant.now());
         }
         if (ticketDto.getCreationDate() != null) {
             existingTicket.setCreationDate(ticketDto.getCreationDate());
@@ -149,10 +194,23 @@ public class TicketService implements TicketInterface {
         }
 
         Ticket updatedTicket = ticketRepository.save(existingTicket);
-        return ticketMapper.toDto(updatedTicket);
+        TicketDto dto = ticketMapper.toDto(updatedTicket);
+        auditTrail.record(EntityType.TICKET, AuditAction.UPDATE, updatedTicket.getId());
+        operatorWorkload.moved(previousUserId, previousUrgency,
+                updatedTicket.getUser() != null ? updatedTicket.getUser().getId() : null, updatedTicket.getTicketUrgency());
+        if (updatedTicket.getUser() != null) {
+            urgencyEscalator.untrack(updatedTicket.getId());
+        } else if (updatedTicket.getTicketUrgency() != previousUrgency || updatedTicket.getRecommendedRole() != previousRole) {
+            urgencyEscalator.track(updatedTicket.getId(), updatedTicket.getRecommendedRole(),
+                    updatedTicket.getTicketUrgency(), updatedTicket.getUrgencySince());
+        }
+        outbox.publish(EntityType.TICKET, AuditAction.UPDATE, updatedTicket.getId(), dto);
+        eventPublisher.publishEvent(TicketsChangedEvent.of(updatedTicket.getId(), previousUserId, dto.getUser()));
+        return dto;
     }
 
     @Override
+    @Transactional
     public TicketDto deleteTicketById(Long id) {
         Optional<Ticket> optionalTicket = ticketRepository.findById(id);
 
@@ -163,11 +221,40 @@ public class TicketService implements TicketInterface {
         Ticket ticket = optionalTicket.get();
         TicketDto ticketDto = ticketMapper.toDto(ticket);
 
-        ticketRepository.deleteById(id);
+        ticket.setDeleted(true);
+        ticketRepository.save(ticket);
+        auditTrail.record(EntityType.TICKET, AuditAction.DELETE, id);
+        operatorWorkload.released(ticketDto.getUser(), ticket.getTicketUrgency());
+        urgencyEscalator.untrack(id);
+        outbox.publish(EntityType.TICKET, AuditAction.DELETE, id, ticketDto);
+        eventPublisher.publishEvent(TicketsChangedEvent.of(id, ticketDto.getUser()));
 
         return ticketDto;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkloadDto> getWorkload() {
+        // the counters span every site; the user query only returns this one's
+        Set<Long> siteUsers = userRepository.findAllIds();
+        return operatorWorkload.snapshot().stream()
+                .filter(workload -> siteUsers.contains(workload.getUser()))
+                .toList();
+    }
+
+    private TicketDto assign(Ticket ticket, User currentUser) {
+        ticket.setUser(currentUser);
+
+        Ticket assignedTicket = ticketRepository.save(ticket);
+        TicketDto dto = ticketMapper.toDto(assignedTicket);
+        auditTrail.record(EntityType.TICKET, AuditAction.ASSIGN, assignedTicket.getId());
+        operatorWorkload.assigned(currentUser.getId(), assignedTicket.getTicketUrgency());
+        urgencyEscalator.untrack(assignedTicket.getId());
+        outbox.publish(EntityType.TICKET, AuditAction.ASSIGN, assignedTicket.getId(), dto);
+        eventPublisher.publishEvent(TicketsChangedEvent.of(assignedTicket.getId(), currentUser.getId()));
+        return dto;
+    }
+
     private User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username;
@@ -1,18 +1,28 @@
 package com.finconsgroup.com.zoo.service;
 
+import com.finconsgroup.com.zoo.audit.AuditTrail;
+import com.finconsgroup.com.zoo.dto.FieldSelection;
 import com.finconsgroup.com.zoo.dto.UserDtoInput;
 import com.finconsgroup.com.zoo.dto.UserDtoOutput;
 import com.finconsgroup.com.zoo.entity.Animal;
 import com.finconsgroup.com.zoo.entity.Enclosure;
 import com.finconsgroup.com.zoo.entity.User;
+import com.finconsgroup.com.zoo.enums.AuditAction;
+import com.finconsgroup.com.zoo.enums.EntityType;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.event.EntityChangedEvent;
 import com.finconsgroup.com.zoo.exception.InvalidInputException;
 import com.finconsgroup.com.zoo.interfaces.UserInterface;
+import com.finconsgroup.com.zoo.mapper.AnimalMapper;
 import com.finconsgroup.com.zoo.mapper.UserMapper;
 import com.finconsgroup.com.zoo.repository.AnimalRepository;
 import com.finconsgroup.com.zoo.repository.EnclosureRepository;
 import com.finconsgroup.com.zoo.repository.UserRepository;
+import com.finconsgroup.com.zoo.workload.OperatorWorkload;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,8 +35,13 @@ public class UserService implements UserInterface {
     private final AnimalRepository animalRepository;
     private final EnclosureRepository enclosureRepository;
     private final UserMapper userMapper;
+    private final AuditTrail auditTrail;
+    private final OperatorWorkload operatorWorkload;
+    private final AnimalMapper animalMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public UserDtoOutput addUser(UserDtoInput userDtoInput) {
         if (userDtoInput != null){
 
@@ -56,6 +71,10 @@ public class UserService implements UserInterface {
                 enclosureRepository.save(e);
             });
 
+            eventPublisher.publishEvent(AnimalsChangedEvent.changed(animals.stream().map(animalMapper::toAnimalDto).toList()));
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityType.USER, saved.getId()));
+            auditTrail.record(EntityType.USER, AuditAction.CREATE, saved.getId());
+
             return userMapper.toDto(saved);
         } else {
             throw new InvalidInputException("Elemento passato non valido");
@@ -63,22 +82,25 @@ public class UserService implements UserInterface {
     }
 
     @Override
-    public UserDtoOutput findUserById(Long id) {
+    @Transactional(readOnly = true)
+    public UserDtoOutput findUserById(Long id, FieldSelection selection) {
         User user = userRepository.findById(id).orElseThrow(
                 () -> new InvalidInputException("Nessun utente correlato a questo id")
         );
 
-        return userMapper.toDto(user);
+        return userMapper.toDto(user, selection);
     }
 
     @Override
-    public List<UserDtoOutput> findAll() {
+    @Transactional(readOnly = true)
+    public List<UserDtoOutput> findAll(FieldSelection selection) {
         return userRepository.findAll().stream()
-                .map(userMapper::toDto)
+                .map(u -> userMapper.toDto(u, selection))
                 .toList();
     }
 
     @Override
+    @Transactional
     public UserDtoOutput updateUserById(Long id, UserDtoInput userDtoInput) {
         if (userDtoInput != null){
             User user = userRepository.findById(id).orElseThrow(
@@ -144,6 +166,12 @@ public class UserService implements UserInterface {
                 enclosureRepository.save(e);
             });
 
+            List<Animal> touched = new ArrayList<>(oldAnimals);
+            touched.addAll(animals);
+            eventPublisher.publishEvent(AnimalsChangedEvent.changed(touched.stream().map(animalMapper::toAnimalDto).toList()));
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityType.USER, updated.getId()));
+            auditTrail.record(EntityType.USER, AuditAction.UPDATE, updated.getId());
+
             return userMapper.toDto(updated);
         } else {
             throw new InvalidInputException("Elemento passato non valido");
@@ -151,28 +179,21 @@ public class UserService implements UserInterface {
     }
 
     @Override
+    @Transactional
     public UserDtoOutput deleteUser(Long id) {
         User user = userRepository.findById(id).orElseThrow(
                 () -> new InvalidInputException("Nessun utente correlato a questo id")
         );
 
-        if (user.getAnimals() != null) {
-            user.getAnimals().forEach(animal -> {
-                animal.setUser(null);
-                animalRepository.save(animal);
-            });
-        }
-
-        if (user.getEnclosures() != null) {
-            user.getEnclosures().forEach(enclosure -> {
-                enclosure.setUser(null);
-                enclosureRepository.save(enclosure);
-            });
-        }
+        // TombstonePurge detaches the animals, enclosures and tickets and removes the row off-peak
+        user.setDeleted(true);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.USER, user.getId()));
 
-        userRepository.delete(user);
+        auditTrail.record(EntityType.USER, AuditAction.DELETE, user.getId());
+        operatorWorkload.forget(user.getId());
 
-        return userMapper.toDto(user);
+        return userMapper.toDto(user, FieldSelection.unexpanded());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.finconsgroup.com.zoo.dto.ZooSummaryDto;
+import com.finconsgroup.com.zoo.interfaces.ZooSummaryInterface;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import com.finconsgroup.com.zoo.summary.ZooSummaryCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ZooSummaryService implements ZooSummaryInterface {
+
+    private final ZooSummaryCache zooSummaryCache;
+    private final SiteContext siteContext;
+
+    @Override
+    public ZooSummaryDto getSummary() {
+        return zooSummaryCache.get(siteContext.requireSite());
+    }
+}
@@ -0,0 +1,29 @@
+package com.finconsgroup.com.zoo.site;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * The site of the authenticated user. Work done outside a request, such as
+ * scheduled jobs and startup loads, has no site and spans all of them.
+ */
+@Component
+public class SiteContext {
+
+    public Long currentSite() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof SiteUserDetails user) {
+            return user.getSite();
+        }
+        return null;
+    }
+
+    public Long requireSite() {
+        Long site = currentSite();
+        if (site == null) {
+            throw new IllegalStateException("Nessuna sede associata alla richiesta corrente");
+        }
+        return site;
+    }
+}
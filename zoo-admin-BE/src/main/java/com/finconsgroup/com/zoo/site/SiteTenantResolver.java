@@ -0,0 +1,45 @@
+package com.finconsgroup.com.zoo.site;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Makes the current site Hibernate's tenant: every query on an entity with a
+ * {@code @TenantId} is filtered by it and every insert stamped with it. Sessions
+ * opened without a site use the root tenant, which sees every site.
+ */
+@Component
+@RequiredArgsConstructor
+public class SiteTenantResolver implements CurrentTenantIdentifierResolver<Long>, HibernatePropertiesCustomizer {
+
+    // no site has this id, so a root session inserting a site-scoped row without one fails
+    private static final Long ALL_SITES = 0L;
+
+    private final SiteContext siteContext;
+
+    @Override
+    public Long resolveCurrentTenantIdentifier() {
+        Long site = siteContext.currentSite();
+        return site != null ? site : ALL_SITES;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(Long tenantId) {
+        return ALL_SITES.equals(tenantId);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
@@ -0,0 +1,26 @@
+package com.finconsgroup.com.zoo.site;
+
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * An authenticated user together with the site their requests are scoped to and,
+ * for operators, their operator type.
+ */
+@Getter
+public class SiteUserDetails extends User {
+
+    private final Long site;
+    private final OperatorType operatorType;
+
+    public SiteUserDetails(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                           Long site, OperatorType operatorType) {
+        super(username, password, true, true, true, true, authorities);
+        this.site = site;
+        this.operatorType = operatorType;
+    }
+}
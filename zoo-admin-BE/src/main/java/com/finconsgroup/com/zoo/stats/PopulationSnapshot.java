@@ -0,0 +1,338 @@
+package com.finconsgroup.com.zoo.stats;
+
+import com.finconsgroup.com.zoo.config.StatsProperties;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.dto.PopulationStatsDto;
+import com.finconsgroup.com.zoo.dto.WeightStatsDto;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Column-oriented copy of the animal population: ids, weights, categories and
+ * enclosures in parallel primitive arrays, with missing weights stored as NaN.
+ * Statistics are computed straight from the arrays; groups are split out with a
+ * counting sort and summarised in parallel once the population is large enough.
+ * Each site has columns of its own, so its statistics cost what its own population
+ * costs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PopulationSnapshot {
+
+    private static final String ALL_ANIMALS = "SELECT id, category, weight, enclosure_id, site_id FROM animals WHERE NOT deleted";
+
+    private static final AnimalCategory[] CATEGORIES = AnimalCategory.values();
+    private static final int NO_GROUP = -1;
+    // groups holding fewer weights than this together are summarised by one task
+    private static final int SEQUENTIAL_WEIGHTS = 8192;
+
+    private static final Columns EMPTY = new Columns();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatsProperties properties;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Columns> columns = new HashMap<>();
+
+    /**
+     * Reloads every column. Runs on startup and periodically, which also picks up
+     * writes made by other nodes or outside the application.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${zoo.stats.resync-interval:300000}", fixedDelayString = "${zoo.stats.resync-interval:300000}")
+    public void rebuild() {
+        Map<Long, Columns> rebuilt = new HashMap<>();
+        jdbcTemplate.query(ALL_ANIMALS, rs -> {
+            AnimalCategory category = CodedEnum.fromCode(AnimalCategory.class, rs.getObject(2, Short.class));
+            double weight = rs.getDouble(3);
+            if (rs.wasNull()) {
+                weight = Double.NaN;
+            }
+            Long enclosure = rs.getObject(4, Long.class);
+            rebuilt.computeIfAbsent(rs.getLong(5), site -> new Columns())
+                    .put(rs.getLong(1), category != null ? category.ordinal() : NO_GROUP, weight, enclosure);
+        });
+
+        lock.writeLock().lock();
+        try {
+            columns = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Snapshot della popolazione ricostruito per {} sedi", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalsChanged(AnimalsChangedEvent event) {
+        if (event.reload()) {
+            rebuild();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (AnimalDto animal : event.changed()) {
+                columns.computeIfAbsent(animal.getSite(), site -> new Columns()).put(animal.getId(),
+                        animal.getCategory() != null ? animal.getCategory().ordinal() : NO_GROUP,
+                        animal.getWeight() != null ? animal.getWeight() : Double.NaN,
+                        animal.getEnclosure());
+            }
+            event.removed().forEach(id -> columns.values().forEach(c -> c.remove(id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public PopulationStatsDto compute(Long site) {
+        long start = System.nanoTime();
+        double[] percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+
+        lock.readLock().lock();
+        try {
+            Columns c = columns.getOrDefault(site, EMPTY);
+            boolean parallel = c.size >= properties.getParallelThreshold();
+
+            PopulationStatsDto stats = new PopulationStatsDto();
+            stats.setOverall(summarise(c, i -> 0, 1, percentiles, parallel)[0]);
+
+            WeightStatsDto[] byCategory = summarise(c, i -> c.categories[i], CATEGORIES.length, percentiles, parallel);
+            for (int g = 0; g < byCategory.length; g++) {
+                if (byCategory[g].getCount() > 0) {
+                    stats.getByCategory().put(CATEGORIES[g], byCategory[g]);
+                }
+            }
+
+            WeightStatsDto[] byEnclosure = summarise(c, i -> c.enclosureSlots[i], c.slotCount, percentiles, parallel);
+            for (int g = 0; g < byEnclosure.length; g++) {
+                if (byEnclosure[g].getCount() > 0) {
+                    stats.getByEnclosure().put(c.slotEnclosures[g], byEnclosure[g]);
+                }
+            }
+
+            stats.setDurationMicros((System.nanoTime() - start) / 1_000);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counting sort of the weights by group into one array, then one sorted
+     * segment per group from which every figure is read off.
+     */
+    private WeightStatsDto[] summarise(Columns c, IntUnaryOperator groupOf, int groups, double[] percentiles,
+                                       boolean parallel) {
+        int n = c.size;
+        int[] counts = new int[groups];
+        int[] offsets = new int[groups + 1];
+        int[] groupIds = new int[n];
+        for (int i = 0; i < n; i++) {
+            int g = groupOf.applyAsInt(i);
+            groupIds[i] = g;
+            if (g != NO_GROUP) {
+                counts[g]++;
+                if (!Double.isNaN(c.weights[i])) {
+                    offsets[g + 1]++;
+                }
+            }
+        }
+        for (int g = 0; g < groups; g++) {
+            offsets[g + 1] += offsets[g];
+        }
+
+        double[] weights = new double[offsets[groups]];
+        int[] cursor = Arrays.copyOf(offsets, groups);
+        for (int i = 0; i < n; i++) {
+            int g = groupIds[i];
+            if (g != NO_GROUP && !Double.isNaN(c.weights[i])) {
+                weights[cursor[g]++] = c.weights[i];
+            }
+        }
+
+        WeightStatsDto[] result = new WeightStatsDto[groups];
+        GroupTask task = new GroupTask(weights, offsets, counts, percentiles, result, 0, groups, parallel);
+        if (parallel && groups > 0) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+        return result;
+    }
+
+    private static final class GroupTask extends RecursiveAction {
+
+        private final double[] weights;
+        private final int[] offsets;
+        private final int[] counts;
+        private final double[] percentiles;
+        private final WeightStatsDto[] result;
+        private final int from;
+        private final int to;
+        private final boolean parallel;
+
+        private GroupTask(double[] weights, int[] offsets, int[] counts, double[] percentiles,
+                          WeightStatsDto[] result, int from, int to, boolean parallel) {
+            this.weights = weights;
+            this.offsets = offsets;
+            this.counts = counts;
+            this.percentiles = percentiles;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected void compute() {
+            if (parallel && to - from > 1 && offsets[to] - offsets[from] > SEQUENTIAL_WEIGHTS) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new GroupTask(weights, offsets, counts, percentiles, result, from, mid, true),
+                        new GroupTask(weights, offsets, counts, percentiles, result, mid, to, true));
+                return;
+            }
+            for (int g = from; g < to; g++) {
+                result[g] = summarise(g);
+            }
+        }
+
+        private WeightStatsDto summarise(int g) {
+            int lo = offsets[g];
+            int hi = offsets[g + 1];
+            int m = hi - lo;
+
+            WeightStatsDto stats = new WeightStatsDto();
+            stats.setCount(counts[g]);
+            stats.setWeighed(m);
+            if (m == 0) {
+                return stats;
+            }
+
+            // a single large group cannot be split between tasks, but its sort can
+            if (parallel && m > SEQUENTIAL_WEIGHTS) {
+                Arrays.parallelSort(weights, lo, hi);
+            } else {
+                Arrays.sort(weights, lo, hi);
+            }
+
+            double sum = 0;
+            for (int i = lo; i < hi; i++) {
+                sum += weights[i];
+            }
+            double mean = sum / m;
+            double squares = 0;
+            for (int i = lo; i < hi; i++) {
+                double d = weights[i] - mean;
+                squares += d * d;
+            }
+
+            stats.setMean(mean);
+            stats.setVariance(squares / m);
+            stats.setMin(weights[lo]);
+            stats.setMax(weights[hi - 1]);
+            for (double p : percentiles) {
+                stats.getPercentiles().put(label(p), percentile(lo, m, p));
+            }
+            return stats;
+        }
+
+        // linear interpolation between the closest ranks
+        private double percentile(int lo, int m, double p) {
+            double rank = Math.min(Math.max(p, 0), 100) / 100 * (m - 1);
+            int below = (int) Math.floor(rank);
+            int above = Math.min(below + 1, m - 1);
+            double fraction = rank - below;
+            return weights[lo + below] + fraction * (weights[lo + above] - weights[lo + below]);
+        }
+
+        private static String label(double p) {
+            return p == Math.rint(p) ? "p" + (long) p : "p" + p;
+        }
+    }
+
+    private static final class Columns {
+
+        private long[] ids = new long[1024];
+        private double[] weights = new double[1024];
+        private int[] categories = new int[1024];
+        private int[] enclosureSlots = new int[1024];
+        private int size;
+
+        // row of each animal, only used when writing
+        private final Map<Long, Integer> rows = new HashMap<>();
+
+        // enclosures are numbered densely so they can index arrays; slots are never
+        // reused, an emptied enclosure just stops showing up in the results
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private long[] slotEnclosures = new long[64];
+        private int slotCount;
+
+        private void put(long id, int category, double weight, Long enclosure) {
+            Integer row = rows.get(id);
+            if (row == null) {
+                if (size == ids.length) {
+                    grow();
+                }
+                row = size++;
+                rows.put(id, row);
+                ids[row] = id;
+            }
+            weights[row] = weight;
+            categories[row] = category;
+            enclosureSlots[row] = enclosure != null ? slot(enclosure) : NO_GROUP;
+        }
+
+        // the last row moves into the gap
+        private void remove(long id) {
+            Integer row = rows.remove(id);
+            if (row == null) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                weights[row] = weights[last];
+                categories[row] = categories[last];
+                enclosureSlots[row] = enclosureSlots[last];
+                rows.put(ids[row], row);
+            }
+        }
+
+        private int slot(long enclosure) {
+            Integer slot = slots.get(enclosure);
+            if (slot == null) {
+                if (slotCount == slotEnclosures.length) {
+                    slotEnclosures = Arrays.copyOf(slotEnclosures, slotCount * 2);
+                }
+                slot = slotCount++;
+                slotEnclosures[slot] = enclosure;
+                slots.put(enclosure, slot);
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            enclosureSlots = Arrays.copyOf(enclosureSlots, capacity);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.finconsgroup.com.zoo.summary;
+
+import com.finconsgroup.com.zoo.config.SummaryProperties;
+import com.finconsgroup.com.zoo.dto.ZooSummaryDto;
+import com.finconsgroup.com.zoo.enums.AnimalCategory;
+import com.finconsgroup.com.zoo.enums.CodedEnum;
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.Role;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.event.EntityChangedEvent;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-site totals, computed with one aggregate query and kept until a committed
+ * write could have changed them or {@code zoo.summary.max-age} has passed. Every
+ * site has its own entry, generation and reload lock, so writes and slow reloads
+ * in one park never throw away or hold up another park's summary.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ZooSummaryCache {
+
+    private static final int ANIMALS = 1;
+    private static final int ENCLOSURES = 2;
+    private static final int USERS = 3;
+
+    // one row per category, one for the enclosures and one per role and operator type
+    private static final String SUMMARY =
+            "SELECT " + ANIMALS + ", category, NULL::smallint, COUNT(*) FROM animals WHERE site_id = ? AND NOT deleted GROUP BY category " +
+            "UNION ALL SELECT " + ENCLOSURES + ", NULL, NULL, COUNT(*) FROM enclosures WHERE site_id = ? AND NOT deleted " +
+            "UNION ALL SELECT " + USERS + ", role, operator_type, COUNT(*) FROM users WHERE site_id = ? AND NOT deleted " +
+            "GROUP BY role, operator_type";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SummaryProperties properties;
+    private final SiteContext siteContext;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * The cached summary of a site, reloaded first when stale. Concurrent misses wait
+     * for a single reload instead of each running the query. The result is shared and
+     * must not be modified.
+     */
+    public ZooSummaryDto get(Long site) {
+        Slot slot = slot(site);
+        Entry current = slot.entry;
+        if (isFresh(slot, current)) {
+            return current.summary();
+        }
+        slot.loading.lock();
+        try {
+            current = slot.entry;
+            if (isFresh(slot, current)) {
+                return current.summary();
+            }
+            // read before loading: an invalidation during the query leaves the entry stale
+            long loadedGeneration = slot.generation.get();
+            ZooSummaryDto summary = load(site);
+            slot.entry = new Entry(loadedGeneration, System.nanoTime(), summary);
+            return summary;
+        } finally {
+            slot.loading.unlock();
+        }
+    }
+
+    /**
+     * Drops the summary of one site, or of every site when {@code site} is null.
+     */
+    public void invalidate(Long site) {
+        if (site == null) {
+            slots.values().forEach(slot -> slot.generation.incrementAndGet());
+        } else {
+            slot(site).generation.incrementAndGet();
+        }
+    }
+
+    // listeners run on the committing thread, so the writer's site is still current;
+    // writes made without one may have touched any site
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalsChanged(AnimalsChangedEvent event) {
+        invalidate(siteContext.currentSite());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(siteContext.currentSite());
+    }
+
+    private Slot slot(Long site) {
+        return slots.computeIfAbsent(site, s -> new Slot());
+    }
+
+    private boolean isFresh(Slot slot, Entry current) {
+        return current != null
+                && current.generation() == slot.generation.get()
+                && System.nanoTime() - current.loadedAt() < properties.getMaxAge().toNanos();
+    }
+
+    // outside a transaction, so the query runs on the primary and never sees a lagging replica
+    private ZooSummaryDto load(Long site) {
+        ZooSummaryDto summary = new ZooSummaryDto();
+        jdbcTemplate.query(SUMMARY, rs -> {
+            long count = rs.getLong(4);
+            switch (rs.getInt(1)) {
+                case ANIMALS -> {
+                    summary.setAnimals(summary.getAnimals() + count);
+                    AnimalCategory category = CodedEnum.fromCode(AnimalCategory.class, rs.getObject(2, Short.class));
+                    if (category != null) {
+                        summary.getAnimalsByCategory().put(category, count);
+                    }
+                }
+                case ENCLOSURES -> summary.setEnclosures(count);
+                case USERS -> {
+                    summary.setUsers(summary.getUsers() + count);
+                    Role role = CodedEnum.fromCode(Role.class, rs.getObject(2, Short.class));
+                    if (role != null) {
+                        summary.getUsersByRole().merge(role, count, Long::sum);
+                    }
+                    OperatorType operatorType = CodedEnum.fromCode(OperatorType.class, rs.getObject(3, Short.class));
+                    if (operatorType != null) {
+                        summary.getOperatorsByType().merge(operatorType, count, Long::sum);
+                    }
+                }
+                default -> throw new IllegalStateException("Riga di riepilogo inattesa: " + rs.getInt(1));
+            }
+        }, site, site, site);
+        summary.setComputedAt(Instant.now());
+        log.debug("Riepilogo della sede {} ricalcolato: {} animali, {} gabbie, {} utenti",
+                site, summary.getAnimals(), summary.getEnclosures(), summary.getUsers());
+        return summary;
+    }
+
+    private record Entry(long generation, long loadedAt, ZooSummaryDto summary) {
+    }
+
+    private static final class Slot {
+
+        private final AtomicLong generation = new AtomicLong();
+        private final ReentrantLock loading = new ReentrantLock();
+        private volatile Entry entry;
+    }
+}
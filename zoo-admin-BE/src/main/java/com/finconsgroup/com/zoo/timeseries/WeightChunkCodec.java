@@ -0,0 +1,100 @@
+package com.finconsgroup.com.zoo.timeseries;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Column encodings for a chunk of weight samples. Timestamps (epoch millis) are
+ * stored as delta-of-delta, so a regular sampling interval costs one byte per
+ * sample; weights are fixed point with three decimals and stored as deltas.
+ * Every number is a zigzag varint.
+ */
+public final class WeightChunkCodec {
+
+    private static final double SCALE = 1000.0;
+
+    private WeightChunkCodec() {
+    }
+
+    public static byte[] encodeTimestamps(long[] timestamps, int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count + 16);
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = timestamps[i] - previous;
+            writeVarLong(out, i == 0 ? timestamps[0] : delta - previousDelta);
+            previousDelta = i == 0 ? 0 : delta;
+            previous = timestamps[i];
+        }
+        return out.toByteArray();
+    }
+
+    public static long[] decodeTimestamps(byte[] encoded, int count) {
+        long[] timestamps = new long[count];
+        int[] position = {0};
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            long value = readVarLong(encoded, position);
+            if (i == 0) {
+                timestamps[0] = value;
+            } else {
+                previousDelta += value;
+                timestamps[i] = previous + previousDelta;
+            }
+            previous = timestamps[i];
+        }
+        return timestamps;
+    }
+
+    public static byte[] encodeWeights(double[] weights, int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count * 2 + 16);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long fixed = toFixed(weights[i]);
+            writeVarLong(out, fixed - previous);
+            previous = fixed;
+        }
+        return out.toByteArray();
+    }
+
+    public static double[] decodeWeights(byte[] encoded, int count) {
+        double[] weights = new double[count];
+        int[] position = {0};
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readVarLong(encoded, position);
+            weights[i] = previous / SCALE;
+        }
+        return weights;
+    }
+
+    // stored values are rounded the same way, so aggregates match what queries decode
+    public static double round(double weight) {
+        return toFixed(weight) / SCALE;
+    }
+
+    private static long toFixed(double weight) {
+        return Math.round(weight * SCALE);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    private static long readVarLong(byte[] in, int[] position) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in[position[0]++];
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.finconsgroup.com.zoo.workload;
+
+import com.finconsgroup.com.zoo.dto.WorkloadDto;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import com.finconsgroup.com.zoo.repository.TicketRepository;
+import com.finconsgroup.com.zoo.repository.TicketRepository.OpenTicketCount;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OperatorWorkload {
+
+    private static final TicketUrgency[] URGENCIES = TicketUrgency.values();
+    // tickets without an urgency only count towards the total
+    private static final int UNSPECIFIED = URGENCIES.length;
+
+    private final TicketRepository ticketRepository;
+
+    private volatile Map<Long, AtomicIntegerArray> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Recounts open tickets per user. Runs on startup and periodically, which also
+     * picks up assignments made by other nodes or outside the application.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${zoo.workload.resync-interval:300000}", fixedDelayString = "${zoo.workload.resync-interval:300000}")
+    public void rebuild() {
+        Map<Long, AtomicIntegerArray> rebuilt = new ConcurrentHashMap<>();
+        for (OpenTicketCount count : ticketRepository.countOpenByUserAndUrgency()) {
+            rebuilt.computeIfAbsent(count.getUserId(), id -> new AtomicIntegerArray(UNSPECIFIED + 1))
+                    .addAndGet(slot(count.getUrgency()), (int) count.getOpen());
+        }
+        counters = rebuilt;
+        log.debug("Carico operatori ricalcolato per {} utenti", rebuilt.size());
+    }
+
+    /**
+     * Recounts the open tickets of some users, for assignments made by another node.
+     */
+    public void refresh(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<Long, AtomicIntegerArray> recounted = new HashMap<>();
+        for (OpenTicketCount count : ticketRepository.countOpenByUserAndUrgency(userIds)) {
+            recounted.computeIfAbsent(count.getUserId(), id -> new AtomicIntegerArray(UNSPECIFIED + 1))
+                    .addAndGet(slot(count.getUrgency()), (int) count.getOpen());
+        }
+        for (Long userId : userIds) {
+            AtomicIntegerArray counts = recounted.get(userId);
+            if (counts != null) {
+                counters.put(userId, counts);
+            } else {
+                counters.remove(userId);
+            }
+        }
+    }
+
+    public void assigned(Long userId, TicketUrgency urgency) {
+        afterCommit(() -> add(userId, urgency, 1));
+    }
+
+    public void released(Long userId, TicketUrgency urgency) {
+        afterCommit(() -> add(userId, urgency, -1));
+    }
+
+    public void moved(Long fromUserId, TicketUrgency fromUrgency, Long toUserId, TicketUrgency toUrgency) {
+        if (Objects.equals(fromUserId, toUserId) && fromUrgency == toUrgency) {
+            return;
+        }
+        afterCommit(() -> {
+            add(fromUserId, fromUrgency, -1);
+            add(toUserId, toUrgency, 1);
+        });
+    }
+
+    public void forget(Long userId) {
+        afterCommit(() -> counters.remove(userId));
+    }
+
+    public List<WorkloadDto> snapshot() {
+        List<WorkloadDto> workload = new ArrayList<>(counters.size());
+        counters.forEach((userId, counts) -> {
+            WorkloadDto dto = new WorkloadDto();
+            dto.setUser(userId);
+            int open = counts.get(UNSPECIFIED);
+            for (TicketUrgency urgency : URGENCIES) {
+                int count = counts.get(urgency.ordinal());
+                dto.getByUrgency().put(urgency, count);
+                open += count;
+            }
+            dto.setOpen(open);
+            workload.add(dto);
+        });
+        return workload;
+    }
+
+    private void add(Long userId, TicketUrgency urgency, int delta) {
+        if (userId == null) {
+            return;
+        }
+        counters.computeIfAbsent(userId, id -> new AtomicIntegerArray(UNSPECIFIED + 1))
+                .addAndGet(slot(urgency), delta);
+    }
+
+    private static int slot(TicketUrgency urgency) {
+        return urgency != null ? urgency.ordinal() : UNSPECIFIED;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
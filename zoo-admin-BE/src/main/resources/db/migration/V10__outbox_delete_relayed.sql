@@ -0,0 +1,4 @@
+-- the relay now deletes events once every sink has them, so the table only holds
+-- the backlog; the rows relayed so far and the published marker go away
+DELETE FROM outbox_events WHERE published_at IS NOT NULL;
+ALTER TABLE outbox_events DROP COLUMN published_at;
@@ -0,0 +1,39 @@
+-- Schema as previously generated by hibernate ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name    VARCHAR(255),
+    last_name     VARCHAR(255),
+    username      VARCHAR(255) UNIQUE,
+    password      VARCHAR(255) NOT NULL,
+    role          VARCHAR(255) CHECK (role IN ('ADMIN', 'MANAGER', 'OPERATOR')),
+    operator_type VARCHAR(255) CHECK (operator_type IN ('ZOOKEEPER', 'VETERINARIAN', 'SECURITY_GUARD'))
+);
+
+CREATE TABLE enclosures (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    area        DOUBLE PRECISION,
+    description VARCHAR(255),
+    user_id     BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE animals (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(255),
+    category     VARCHAR(255) CHECK (category IN ('MAMMAL', 'BIRD', 'REPTILE', 'AMPHIBIAN', 'FISH', 'INSECT')),
+    weight       DOUBLE PRECISION,
+    user_id      BIGINT REFERENCES users (id),
+    enclosure_id BIGINT REFERENCES enclosures (id)
+);
+
+CREATE TABLE tickets (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(255),
+    ticket_urgency   VARCHAR(255) CHECK (ticket_urgency IN ('BASSO', 'MEDIO', 'ALTO')),
+    recommended_role VARCHAR(255) CHECK (recommended_role IN ('ZOOKEEPER', 'VETERINARIAN', 'SECURITY_GUARD')),
+    creation_date    DATE,
+    description      VARCHAR(255),
+    assigned_user_id BIGINT REFERENCES users (id)
+);
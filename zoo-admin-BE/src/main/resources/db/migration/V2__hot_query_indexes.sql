@@ -0,0 +1,22 @@
+-- TicketRepository.findByUser (my-tickets): only assigned rows are ever looked up by user.
+CREATE INDEX IF NOT EXISTS idx_tickets_assigned_user
+    ON tickets (assigned_user_id)
+    WHERE assigned_user_id IS NOT NULL;
+
+-- TicketRepository.findByUserIsNull* (dashboard): unassigned tickets filtered by recommended role.
+CREATE INDEX IF NOT EXISTS idx_tickets_unassigned_role
+    ON tickets (recommended_role)
+    WHERE assigned_user_id IS NULL;
+
+-- Foreign keys used to load Enclosure.animals and User.animals / User.enclosures.
+CREATE INDEX IF NOT EXISTS idx_animals_enclosure
+    ON animals (enclosure_id)
+    WHERE enclosure_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_animals_user
+    ON animals (user_id)
+    WHERE user_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_enclosures_user
+    ON enclosures (user_id)
+    WHERE user_id IS NOT NULL;
@@ -0,0 +1,14 @@
+CREATE TABLE outbox_events (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(32)  NOT NULL,
+    aggregate_id   BIGINT       NOT NULL,
+    event_type     VARCHAR(32)  NOT NULL,
+    payload        TEXT         NOT NULL,
+    created_at     TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    published_at   TIMESTAMPTZ
+);
+
+-- the relay only ever scans the unpublished tail in id order
+CREATE INDEX idx_outbox_events_unpublished
+    ON outbox_events (id)
+    WHERE published_at IS NULL;
@@ -0,0 +1,4 @@
+-- escalation deadlines run from the last urgency change; existing tickets start from their creation day
+ALTER TABLE tickets ADD COLUMN urgency_since TIMESTAMPTZ;
+
+UPDATE tickets SET urgency_since = creation_date::timestamptz WHERE creation_date IS NOT NULL;
@@ -0,0 +1,14 @@
+-- one row per animal and 30-day window; samples are stored column-wise in delta-encoded blobs
+CREATE TABLE animal_weight_chunks (
+    animal_id   BIGINT           NOT NULL REFERENCES animals (id) ON DELETE CASCADE,
+    chunk_start TIMESTAMPTZ      NOT NULL,
+    first_at    TIMESTAMPTZ      NOT NULL,
+    last_at     TIMESTAMPTZ      NOT NULL,
+    samples     INTEGER          NOT NULL,
+    min_weight  DOUBLE PRECISION NOT NULL,
+    max_weight  DOUBLE PRECISION NOT NULL,
+    sum_weight  DOUBLE PRECISION NOT NULL,
+    timestamps  BYTEA            NOT NULL,
+    weights     BYTEA            NOT NULL,
+    PRIMARY KEY (animal_id, chunk_start)
+);
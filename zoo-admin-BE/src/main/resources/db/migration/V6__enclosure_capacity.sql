@@ -0,0 +1,17 @@
+-- optional per-enclosure animal limit; area per animal is configured by category
+ALTER TABLE enclosures ADD COLUMN max_animals INTEGER CHECK (max_animals >= 0);
+
+-- animals per enclosure and category, kept in step with placements so capacity checks
+-- never have to count the enclosure's animals
+CREATE TABLE enclosure_occupancy (
+    enclosure_id BIGINT       NOT NULL REFERENCES enclosures (id) ON DELETE CASCADE,
+    category     VARCHAR(255) NOT NULL,
+    animals      INTEGER      NOT NULL CHECK (animals >= 0),
+    PRIMARY KEY (enclosure_id, category)
+);
+
+INSERT INTO enclosure_occupancy (enclosure_id, category, animals)
+SELECT enclosure_id, category, COUNT(*)
+FROM animals
+WHERE enclosure_id IS NOT NULL AND category IS NOT NULL
+GROUP BY enclosure_id, category;
@@ -0,0 +1,125 @@
+-- Enum columns become smallint codes (see CodedEnum). The script runs outside a
+-- transaction: the code columns are added and kept in step by triggers, backfilled
+-- in committed batches and indexed concurrently while the tables stay writable;
+-- only the final swap holds an exclusive lock, and only for catalog changes.
+-- Positions in these arrays are the codes.
+
+ALTER TABLE animals ADD COLUMN category_code SMALLINT;
+ALTER TABLE users ADD COLUMN role_code SMALLINT, ADD COLUMN operator_type_code SMALLINT;
+ALTER TABLE tickets ADD COLUMN ticket_urgency_code SMALLINT, ADD COLUMN recommended_role_code SMALLINT;
+
+CREATE FUNCTION animals_enum_codes() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.category_code := array_position(ARRAY['MAMMAL', 'BIRD', 'REPTILE', 'AMPHIBIAN', 'FISH', 'INSECT'], NEW.category::text);
+    RETURN NEW;
+END $$;
+
+CREATE FUNCTION users_enum_codes() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.role_code := array_position(ARRAY['ADMIN', 'MANAGER', 'OPERATOR'], NEW.role::text);
+    NEW.operator_type_code := array_position(ARRAY['ZOOKEEPER', 'VETERINARIAN', 'SECURITY_GUARD'], NEW.operator_type::text);
+    RETURN NEW;
+END $$;
+
+CREATE FUNCTION tickets_enum_codes() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.ticket_urgency_code := array_position(ARRAY['BASSO', 'MEDIO', 'ALTO'], NEW.ticket_urgency::text);
+    NEW.recommended_role_code := array_position(ARRAY['ZOOKEEPER', 'VETERINARIAN', 'SECURITY_GUARD'], NEW.recommended_role::text);
+    RETURN NEW;
+END $$;
+
+CREATE TRIGGER animals_enum_codes BEFORE INSERT OR UPDATE OF category ON animals
+    FOR EACH ROW EXECUTE FUNCTION animals_enum_codes();
+CREATE TRIGGER users_enum_codes BEFORE INSERT OR UPDATE OF role, operator_type ON users
+    FOR EACH ROW EXECUTE FUNCTION users_enum_codes();
+CREATE TRIGGER tickets_enum_codes BEFORE INSERT OR UPDATE OF ticket_urgency, recommended_role ON tickets
+    FOR EACH ROW EXECUTE FUNCTION tickets_enum_codes();
+
+-- rows written from here on are covered by the triggers; the backfill only touches
+-- the code columns, so it does not fire them
+DO $$
+DECLARE
+    batch   CONSTANT BIGINT := 10000;
+    last_id BIGINT := 0;
+    max_id  BIGINT;
+BEGIN
+    SELECT max(id) INTO max_id FROM animals;
+    WHILE last_id < max_id LOOP
+        UPDATE animals
+        SET category_code = array_position(ARRAY['MAMMAL', 'BIRD', 'REPTILE', 'AMPHIBIAN', 'FISH', 'INSECT'], category::text)
+        WHERE id > last_id AND id <= last_id + batch;
+        last_id := last_id + batch;
+        COMMIT;
+    END LOOP;
+
+    last_id := 0;
+    SELECT max(id) INTO max_id FROM users;
+    WHILE last_id < max_id LOOP
+        UPDATE users
+        SET role_code = array_position(ARRAY['ADMIN', 'MANAGER', 'OPERATOR'], role::text),
+            operator_type_code = array_position(ARRAY['ZOOKEEPER', 'VETERINARIAN', 'SECURITY_GUARD'], operator_type::text)
+        WHERE id > last_id AND id <= last_id + batch;
+        last_id := last_id + batch;
+        COMMIT;
+    END LOOP;
+
+    last_id := 0;
+    SELECT max(id) INTO max_id FROM tickets;
+    WHILE last_id < max_id LOOP
+        UPDATE tickets
+        SET ticket_urgency_code = array_position(ARRAY['BASSO', 'MEDIO', 'ALTO'], ticket_urgency::text),
+            recommended_role_code = array_position(ARRAY['ZOOKEEPER', 'VETERINARIAN', 'SECURITY_GUARD'], recommended_role::text)
+        WHERE id > last_id AND id <= last_id + batch;
+        last_id := last_id + batch;
+        COMMIT;
+    END LOOP;
+END $$;
+
+CREATE INDEX CONCURRENTLY idx_tickets_unassigned_role_code
+    ON tickets (recommended_role_code)
+    WHERE assigned_user_id IS NULL;
+
+-- the swap: dropping a column only marks it dropped, the old values are reclaimed
+-- as rows are rewritten (or at once by VACUUM FULL / pg_repack)
+DO $$
+BEGIN
+    LOCK TABLE users, animals, tickets, enclosure_occupancy IN ACCESS EXCLUSIVE MODE;
+
+    DROP TRIGGER animals_enum_codes ON animals;
+    DROP TRIGGER users_enum_codes ON users;
+    DROP TRIGGER tickets_enum_codes ON tickets;
+
+    ALTER TABLE animals DROP COLUMN category;
+    ALTER TABLE animals RENAME COLUMN category_code TO category;
+    ALTER TABLE animals ADD CONSTRAINT animals_category_check CHECK (category BETWEEN 1 AND 6) NOT VALID;
+
+    ALTER TABLE users DROP COLUMN role, DROP COLUMN operator_type;
+    ALTER TABLE users RENAME COLUMN role_code TO role;
+    ALTER TABLE users RENAME COLUMN operator_type_code TO operator_type;
+    ALTER TABLE users ADD CONSTRAINT users_role_check CHECK (role BETWEEN 1 AND 3) NOT VALID,
+        ADD CONSTRAINT users_operator_type_check CHECK (operator_type BETWEEN 1 AND 3) NOT VALID;
+
+    -- also drops idx_tickets_unassigned_role, replaced by the index built above
+    ALTER TABLE tickets DROP COLUMN ticket_urgency, DROP COLUMN recommended_role;
+    ALTER TABLE tickets RENAME COLUMN ticket_urgency_code TO ticket_urgency;
+    ALTER TABLE tickets RENAME COLUMN recommended_role_code TO recommended_role;
+    ALTER TABLE tickets ADD CONSTRAINT tickets_ticket_urgency_check CHECK (ticket_urgency BETWEEN 1 AND 3) NOT VALID,
+        ADD CONSTRAINT tickets_recommended_role_check CHECK (recommended_role BETWEEN 1 AND 3) NOT VALID;
+    ALTER INDEX idx_tickets_unassigned_role_code RENAME TO idx_tickets_unassigned_role;
+
+    -- a handful of rows per enclosure, rewritten in place
+    ALTER TABLE enclosure_occupancy ALTER COLUMN category TYPE SMALLINT
+        USING array_position(ARRAY['MAMMAL', 'BIRD', 'REPTILE', 'AMPHIBIAN', 'FISH', 'INSECT'], category::text);
+    ALTER TABLE enclosure_occupancy ADD CONSTRAINT enclosure_occupancy_category_check CHECK (category BETWEEN 1 AND 6);
+END $$;
+
+DROP FUNCTION animals_enum_codes();
+DROP FUNCTION users_enum_codes();
+DROP FUNCTION tickets_enum_codes();
+
+-- validation scans the tables without blocking writes
+ALTER TABLE animals VALIDATE CONSTRAINT animals_category_check;
+ALTER TABLE users VALIDATE CONSTRAINT users_role_check;
+ALTER TABLE users VALIDATE CONSTRAINT users_operator_type_check;
+ALTER TABLE tickets VALIDATE CONSTRAINT tickets_ticket_urgency_check;
+ALTER TABLE tickets VALIDATE CONSTRAINT tickets_recommended_role_check;
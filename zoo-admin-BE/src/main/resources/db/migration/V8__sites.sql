@@ -0,0 +1,139 @@
+-- one row per park served by this deployment; existing data belongs to the first one
+CREATE TABLE sites (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code VARCHAR(32)  NOT NULL UNIQUE,
+    name VARCHAR(255) NOT NULL
+);
+
+INSERT INTO sites (id, code, name) VALUES (1, 'MAIN', 'Parco principale');
+SELECT setval(pg_get_serial_sequence('sites', 'id'), 1);
+
+-- a constant default is stored in the catalog, so existing rows are not rewritten
+ALTER TABLE users ADD COLUMN site_id BIGINT NOT NULL DEFAULT 1 REFERENCES sites (id);
+ALTER TABLE users ALTER COLUMN site_id DROP DEFAULT;
+CREATE INDEX idx_users_site ON users (site_id);
+
+ALTER TABLE enclosures ADD COLUMN site_id BIGINT NOT NULL DEFAULT 1 REFERENCES sites (id);
+ALTER TABLE enclosures ALTER COLUMN site_id DROP DEFAULT;
+CREATE INDEX idx_enclosures_site ON enclosures (site_id);
+
+-- animals and tickets are list-partitioned by site: the existing tables become the
+-- first site's partitions in place, and the partitioned tables take over their names.
+-- Identity columns cannot sit on a partition, so ids move to the parent and carry on
+-- from the current maximum.
+--
+-- Databases created by Hibernate and baselined at V1 name their foreign keys FK...,
+-- so the keys renamed or dropped below first get the names PostgreSQL generates.
+DO $$
+DECLARE
+    target RECORD;
+    current_name TEXT;
+BEGIN
+    FOR target IN SELECT * FROM (VALUES
+            ('animal_weight_chunks', 'f', 'animal_id', 'animal_weight_chunks_animal_id_fkey'),
+            ('animals', 'f', 'user_id', 'animals_user_id_fkey'),
+            ('animals', 'f', 'enclosure_id', 'animals_enclosure_id_fkey'),
+            ('animals', 'p', 'id', 'animals_pkey'),
+            ('tickets', 'f', 'assigned_user_id', 'tickets_assigned_user_id_fkey'),
+            ('tickets', 'p', 'id', 'tickets_pkey')) AS t (table_name, kind, column_name, constraint_name)
+    LOOP
+        SELECT c.conname INTO current_name
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = target.table_name::regclass
+          AND c.contype = target.kind::"char"
+          AND cardinality(c.conkey) = 1
+          AND a.attname = target.column_name;
+
+        IF current_name IS NULL THEN
+            RAISE EXCEPTION 'Constraint % not found on %', target.constraint_name, target.table_name;
+        ELSIF current_name <> target.constraint_name THEN
+            EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I',
+                           target.table_name, current_name, target.constraint_name);
+        END IF;
+    END LOOP;
+END
+$$;
+
+ALTER TABLE animal_weight_chunks DROP CONSTRAINT animal_weight_chunks_animal_id_fkey;
+
+ALTER TABLE animals ADD COLUMN site_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE animals ALTER COLUMN site_id DROP DEFAULT;
+ALTER TABLE animals ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE animals RENAME TO animals_site_1;
+ALTER INDEX idx_animals_enclosure RENAME TO animals_site_1_enclosure_id_idx;
+ALTER INDEX idx_animals_user RENAME TO animals_site_1_user_id_idx;
+ALTER TABLE animals_site_1 RENAME CONSTRAINT animals_user_id_fkey TO animals_site_1_user_id_fkey;
+ALTER TABLE animals_site_1 RENAME CONSTRAINT animals_enclosure_id_fkey TO animals_site_1_enclosure_id_fkey;
+ALTER TABLE animals_site_1 DROP CONSTRAINT animals_pkey;
+ALTER TABLE animals_site_1 ADD CONSTRAINT animals_site_1_pkey PRIMARY KEY (id, site_id);
+
+CREATE TABLE animals (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name         VARCHAR(255),
+    weight       DOUBLE PRECISION,
+    user_id      BIGINT REFERENCES users (id),
+    enclosure_id BIGINT REFERENCES enclosures (id),
+    category     SMALLINT CONSTRAINT animals_category_check CHECK (category BETWEEN 1 AND 6),
+    site_id      BIGINT NOT NULL REFERENCES sites (id),
+    PRIMARY KEY (id, site_id)
+) PARTITION BY LIST (site_id);
+
+CREATE INDEX idx_animals_enclosure ON animals (enclosure_id) WHERE enclosure_id IS NOT NULL;
+CREATE INDEX idx_animals_user ON animals (user_id) WHERE user_id IS NOT NULL;
+
+ALTER TABLE animals ATTACH PARTITION animals_site_1 FOR VALUES IN (1);
+SELECT setval(pg_get_serial_sequence('animals', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM animals;
+
+ALTER TABLE tickets ADD COLUMN site_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE tickets ALTER COLUMN site_id DROP DEFAULT;
+ALTER TABLE tickets ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE tickets RENAME TO tickets_site_1;
+ALTER INDEX idx_tickets_assigned_user RENAME TO tickets_site_1_assigned_user_id_idx;
+ALTER INDEX idx_tickets_unassigned_role RENAME TO tickets_site_1_recommended_role_idx;
+ALTER TABLE tickets_site_1 RENAME CONSTRAINT tickets_assigned_user_id_fkey TO tickets_site_1_assigned_user_id_fkey;
+ALTER TABLE tickets_site_1 DROP CONSTRAINT tickets_pkey;
+ALTER TABLE tickets_site_1 ADD CONSTRAINT tickets_site_1_pkey PRIMARY KEY (id, site_id);
+
+CREATE TABLE tickets (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title            VARCHAR(255),
+    creation_date    DATE,
+    description      VARCHAR(255),
+    assigned_user_id BIGINT REFERENCES users (id),
+    urgency_since    TIMESTAMPTZ,
+    ticket_urgency   SMALLINT CONSTRAINT tickets_ticket_urgency_check CHECK (ticket_urgency BETWEEN 1 AND 3),
+    recommended_role SMALLINT CONSTRAINT tickets_recommended_role_check CHECK (recommended_role BETWEEN 1 AND 3),
+    site_id          BIGINT NOT NULL REFERENCES sites (id),
+    PRIMARY KEY (id, site_id)
+) PARTITION BY LIST (site_id);
+
+CREATE INDEX idx_tickets_assigned_user ON tickets (assigned_user_id) WHERE assigned_user_id IS NOT NULL;
+CREATE INDEX idx_tickets_unassigned_role ON tickets (recommended_role) WHERE assigned_user_id IS NULL;
+
+ALTER TABLE tickets ATTACH PARTITION tickets_site_1 FOR VALUES IN (1);
+SELECT setval(pg_get_serial_sequence('tickets', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM tickets;
+
+-- weight chunks can no longer reference the animal id alone, which is only unique
+-- together with the site; deletes still cascade
+CREATE FUNCTION delete_animal_weight_chunks() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    DELETE FROM animal_weight_chunks WHERE animal_id = OLD.id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER animals_delete_weight_chunks AFTER DELETE ON animals
+    FOR EACH ROW EXECUTE FUNCTION delete_animal_weight_chunks();
+
+-- a new site gets its partitions, with every index of the parents, as soon as it is inserted
+CREATE FUNCTION create_site_partitions() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    EXECUTE format('CREATE TABLE %I PARTITION OF animals FOR VALUES IN (%s)', 'animals_site_' || NEW.id, NEW.id);
+    EXECUTE format('CREATE TABLE %I PARTITION OF tickets FOR VALUES IN (%s)', 'tickets_site_' || NEW.id, NEW.id);
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER sites_create_partitions AFTER INSERT ON sites
+    FOR EACH ROW EXECUTE FUNCTION create_site_partitions();
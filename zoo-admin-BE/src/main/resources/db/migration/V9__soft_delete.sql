@@ -0,0 +1,35 @@
+-- deletes only set a tombstone; off-peak, the purge job detaches the children in
+-- batches and then removes the rows. A constant default is stored in the catalog,
+-- so existing rows are not rewritten, and the partitions of animals and tickets
+-- inherit the column.
+ALTER TABLE users ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE enclosures ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE animals ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE tickets ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- the purge looks tombstones up by these; they stay empty between runs
+CREATE INDEX idx_users_deleted ON users (id) WHERE deleted;
+CREATE INDEX idx_enclosures_deleted ON enclosures (id) WHERE deleted;
+CREATE INDEX idx_animals_deleted ON animals (id) WHERE deleted;
+CREATE INDEX idx_tickets_deleted ON tickets (id) WHERE deleted;
+
+-- a deleted user's username can be taken again before the row is purged
+-- (databases created by Hibernate name the constraint UK..., so it is looked up)
+DO $$
+DECLARE
+    current_name TEXT;
+BEGIN
+    SELECT c.conname INTO current_name
+    FROM pg_constraint c
+    JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+    WHERE c.conrelid = 'users'::regclass
+      AND c.contype = 'u'
+      AND cardinality(c.conkey) = 1
+      AND a.attname = 'username';
+
+    IF current_name IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', current_name);
+    END IF;
+END
+$$;
+CREATE UNIQUE INDEX idx_users_username ON users (username) WHERE NOT deleted;
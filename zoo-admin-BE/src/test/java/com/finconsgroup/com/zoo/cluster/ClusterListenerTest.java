@@ -0,0 +1,155 @@
+package com.finconsgroup.com.zoo.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finconsgroup.com.zoo.config.ClusterProperties;
+import com.finconsgroup.com.zoo.detail.DetailResponseCache;
+import com.finconsgroup.com.zoo.dto.AnimalDto;
+import com.finconsgroup.com.zoo.escalation.UrgencyEscalator;
+import com.finconsgroup.com.zoo.event.AnimalsChangedEvent;
+import com.finconsgroup.com.zoo.event.TicketsChangedEvent;
+import com.finconsgroup.com.zoo.search.AnimalSearchIndex;
+import com.finconsgroup.com.zoo.site.SiteContext;
+import com.finconsgroup.com.zoo.stats.PopulationSnapshot;
+import com.finconsgroup.com.zoo.summary.ZooSummaryCache;
+import com.finconsgroup.com.zoo.workload.OperatorWorkload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two nodes on the application's database, each with its own notifier and listener
+ * on a private channel, so the application's own listener stays out of the way.
+ */
+@SpringBootTest
+class ClusterListenerTest {
+
+    private static final long WAIT_MILLIS = 10_000;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ClusterProperties properties = new ClusterProperties();
+    private Node first;
+    private Node second;
+
+    @BeforeEach
+    void startNodes() throws InterruptedException {
+        properties.setChannel("zoo_changes_test_" + UUID.randomUUID().toString().replace("-", ""));
+        first = new Node();
+        second = new Node();
+        first.listener.start();
+        second.listener.start();
+        awaitListeners(2);
+    }
+
+    @AfterEach
+    void stopNodes() throws InterruptedException {
+        first.listener.stop();
+        second.listener.stop();
+    }
+
+    @Test
+    void ticketChangesReachTheOtherNodeButNotTheWriter() {
+        commit(() -> first.notifier.onTicketsChanged(new TicketsChangedEvent(List.of(101L), List.of(7L))));
+        verify(second.urgencyEscalator, timeout(WAIT_MILLIS)).refresh(Set.of(101L));
+        verify(second.operatorWorkload, timeout(WAIT_MILLIS)).refresh(Set.of(7L));
+
+        // once the first node has applied a later message, it has also seen its own
+        commit(() -> second.notifier.onTicketsChanged(new TicketsChangedEvent(List.of(102L), List.of())));
+        verify(first.urgencyEscalator, timeout(WAIT_MILLIS)).refresh(Set.of(102L));
+        verify(first.urgencyEscalator, never()).refresh(Set.of(101L));
+    }
+
+    @Test
+    void rolledBackWritesAreNotBroadcast() {
+        transactionTemplate.executeWithoutResult(status -> {
+            first.notifier.onTicketsChanged(new TicketsChangedEvent(List.of(201L), List.of()));
+            status.setRollbackOnly();
+        });
+        commit(() -> first.notifier.onTicketsChanged(new TicketsChangedEvent(List.of(202L), List.of())));
+
+        verify(second.urgencyEscalator, timeout(WAIT_MILLIS)).refresh(Set.of(202L));
+        verify(second.urgencyEscalator, never()).refresh(Set.of(201L));
+    }
+
+    @Test
+    void changedAnimalsAreReloadedAndMissingOnesRemoved() {
+        Long existing = jdbcTemplate.queryForObject("SELECT min(id) FROM animals WHERE NOT deleted", Long.class);
+        Long missing = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) + 1000 FROM animals", Long.class);
+        AnimalDto changed = new AnimalDto();
+        changed.setId(existing);
+
+        commit(() -> first.notifier.onAnimalsChanged(
+                new AnimalsChangedEvent(List.of(changed), List.of(missing), false)));
+
+        ArgumentCaptor<AnimalsChangedEvent> event = ArgumentCaptor.forClass(AnimalsChangedEvent.class);
+        verify(second.animalSearchIndex, timeout(WAIT_MILLIS)).onAnimalsChanged(event.capture());
+        assertThat(event.getValue().changed()).extracting(AnimalDto::getId).containsExactly(existing);
+        assertThat(event.getValue().changed().get(0).getName()).isNotNull();
+        assertThat(event.getValue().removed()).containsExactly(missing);
+        verify(second.populationSnapshot).onAnimalsChanged(event.getValue());
+        verify(second.zooSummaryCache).invalidate(null);
+        verify(first.animalSearchIndex, never()).onAnimalsChanged(any());
+    }
+
+    private void commit(Runnable write) {
+        transactionTemplate.executeWithoutResult(status -> write.run());
+    }
+
+    // LISTEN runs on the listener's own thread; both must be registered before anything is sent
+    private void awaitListeners(int expected) throws InterruptedException {
+        String listen = "LISTEN \"" + properties.getChannel() + "\"";
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Integer listening = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_stat_activity WHERE query = ? AND state = 'idle'", Integer.class, listen);
+            if (listening != null && listening == expected) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("I listener non sono in ascolto sul canale " + properties.getChannel());
+    }
+
+    private final class Node {
+
+        private final AnimalSearchIndex animalSearchIndex = mock(AnimalSearchIndex.class);
+        private final PopulationSnapshot populationSnapshot = mock(PopulationSnapshot.class);
+        private final ZooSummaryCache zooSummaryCache = mock(ZooSummaryCache.class);
+        private final DetailResponseCache detailResponseCache = mock(DetailResponseCache.class);
+        private final OperatorWorkload operatorWorkload = mock(OperatorWorkload.class);
+        private final UrgencyEscalator urgencyEscalator = mock(UrgencyEscalator.class);
+        private final ClusterNotifier notifier;
+        private final ClusterListener listener;
+
+        private Node() {
+            notifier = new ClusterNotifier(jdbcTemplate, objectMapper, properties, new SiteContext());
+            listener = new ClusterListener(dataSourceProperties, jdbcTemplate, objectMapper, properties, notifier,
+                    animalSearchIndex, populationSnapshot, zooSummaryCache, detailResponseCache,
+                    operatorWorkload, urgencyEscalator);
+        }
+    }
+}
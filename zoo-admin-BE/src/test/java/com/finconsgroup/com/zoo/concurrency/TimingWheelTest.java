@@ -0,0 +1,103 @@
+package com.finconsgroup.com.zoo.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void rejectsDeadlinesWithinTheCurrentTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 1_000);
+
+        assertThat(wheel.schedule("past", 990)).isNull();
+        assertThat(wheel.schedule("now", 1_009)).isNull();
+        assertThat(wheel.schedule("next", 1_010)).isNotNull();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void expiresAnEntryInTheTickOfItsDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 1_000);
+        wheel.schedule("a", 1_035);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(1_029, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(1_030, expired::add);
+        assertThat(expired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void dropsCancelledEntries() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 1_000);
+        wheel.schedule("kept", 1_050);
+        wheel.schedule("cancelled", 1_050).cancel();
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(1_100, expired::add);
+
+        assertThat(expired).containsExactly("kept");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesFarDeadlinesDownToTheRightTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 4, 0);
+        long[] deadlines = {3, 4, 17, 64, 65, 300, 1_023};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long now = 1; now <= 1_100; now++) {
+            long time = now;
+            wheel.advance(now, payload -> firedAt.put(payload, time));
+        }
+
+        for (long deadline : deadlines) {
+            assertThat(firedAt).containsEntry(deadline, deadline);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void matchesAPlainScanUnderRandomScheduling() {
+        Random random = new Random(42);
+        long tick = 5;
+        TimingWheel<Integer> wheel = new TimingWheel<>(tick, 16, 0);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        Map<Integer, Long> firedAt = new HashMap<>();
+
+        long now = 0;
+        int next = 0;
+        while (now < 20_000) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                long deadline = now + tick + random.nextInt(5_000);
+                wheel.schedule(next, deadline);
+                deadlines.put(next++, deadline);
+            }
+            long previous = now;
+            now += 1 + random.nextInt(40);
+            long time = now;
+            wheel.advance(now, payload -> {
+                // never after the call that reaches its tick, never before it
+                long due = deadlines.get(payload) / tick * tick;
+                assertThat(due).isGreaterThan(previous).isLessThanOrEqualTo(time);
+                firedAt.put(payload, time);
+            });
+        }
+        wheel.advance(now + 10_000, payload -> firedAt.put(payload, -1L));
+
+        assertThat(firedAt).hasSize(deadlines.size());
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,97 @@
+package com.finconsgroup.com.zoo.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void admitsTheBurstAtOnceAndThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void refillsOnePermitPerEmissionInterval() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = System.nanoTime();
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now + SECOND / 20)).isEqualTo(SECOND / 20);
+        assertThat(bucket.tryAcquire(now + SECOND / 10)).isZero();
+        assertThat(bucket.tryAcquire(now + SECOND / 10)).isPositive();
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumePermits() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = System.nanoTime();
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        for (int i = 0; i < 100; i++) {
+            assertThat(bucket.tryAcquire(now)).isPositive();
+        }
+        assertThat(bucket.tryAcquire(now + SECOND / 10)).isZero();
+    }
+
+    @Test
+    void idleTimeDoesNotBankMoreThanTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long later = System.nanoTime() + 60 * SECOND;
+
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void concurrentCallersShareTheBurstExactly() throws Exception {
+        int burst = 50;
+        TokenBucket bucket = new TokenBucket(1, burst);
+        long now = System.nanoTime();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> callers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                callers.add(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (bucket.tryAcquire(now) == 0) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                });
+            }
+            List<Future<Integer>> results = new ArrayList<>();
+            callers.forEach(caller -> results.add(executor.submit(caller)));
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<Integer> result : results) {
+                admitted += result.get();
+            }
+            assertThat(admitted).isEqualTo(burst);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
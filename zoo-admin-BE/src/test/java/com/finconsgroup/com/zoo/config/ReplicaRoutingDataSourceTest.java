@@ -0,0 +1,87 @@
+package com.finconsgroup.com.zoo.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The replica is a second, read-only pool on the application's database; the
+ * connection's application name tells which pool a transaction ran on.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:postgresql://localhost:5432/zoo_application?ApplicationName=zoo-primary",
+        "zoo.datasource.replica.url=jdbc:postgresql://localhost:5432/zoo_application?ApplicationName=zoo-replica",
+        "zoo.datasource.replica.username=${spring.datasource.username}",
+        "zoo.datasource.replica.password=${spring.datasource.password}",
+        "zoo.datasource.replica.hikari.read-only=true",
+        "zoo.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void eachTransactionOfARequestTakesItsOwnRoute() throws Exception {
+        mockMvc.perform(get(RouteController.PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("zoo-replica"))
+                .andExpect(jsonPath("$[1]").value("zoo-primary"));
+    }
+
+    @TestConfiguration
+    static class Routes {
+
+        @Bean
+        RouteController routeController(PlatformTransactionManager transactionManager) {
+            return new RouteController(transactionManager);
+        }
+    }
+
+    // a read followed by a write, as TicketController.completeTicket does
+    @RestController
+    static class RouteController {
+
+        static final String PATH = "/api/auth/test-routes";
+
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        RouteController(PlatformTransactionManager transactionManager) {
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        @GetMapping(PATH)
+        List<String> routes() {
+            return List.of(readOnly.execute(status -> applicationName()),
+                    readWrite.execute(status -> applicationName()));
+        }
+
+        private String applicationName() {
+            return (String) entityManager.createNativeQuery("SELECT current_setting('application_name')")
+                    .getSingleResult();
+        }
+    }
+}
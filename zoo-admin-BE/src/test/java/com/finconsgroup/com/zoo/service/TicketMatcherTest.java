@@ -0,0 +1,102 @@
+package com.finconsgroup.com.zoo.service;
+
+import com.finconsgroup.com.zoo.dto.TicketAssignmentDto;
+import com.finconsgroup.com.zoo.enums.OperatorType;
+import com.finconsgroup.com.zoo.enums.TicketUrgency;
+import com.finconsgroup.com.zoo.service.TicketMatcher.Operator;
+import com.finconsgroup.com.zoo.service.TicketMatcher.PendingTicket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TicketMatcherTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void assignsTicketsOnlyToOperatorsOfTheRecommendedType() {
+        List<TicketAssignmentDto> assignments = TicketMatcher.match(
+                List.of(ticket(1, TicketUrgency.MEDIO, OperatorType.VETERINARIAN, TODAY)),
+                List.of(operator(10, OperatorType.ZOOKEEPER, 0), operator(11, OperatorType.VETERINARIAN, 5)),
+                10);
+
+        assertThat(assignments).extracting(TicketAssignmentDto::getTicket, TicketAssignmentDto::getUser)
+                .containsExactly(tuple(1L, 11L));
+    }
+
+    @Test
+    void leavesTicketsWithoutAMatchingOperatorUnassigned() {
+        List<TicketAssignmentDto> assignments = TicketMatcher.match(
+                List.of(ticket(1, TicketUrgency.ALTO, OperatorType.SECURITY_GUARD, TODAY)),
+                List.of(operator(10, OperatorType.ZOOKEEPER, 0), operator(11, null, 0)),
+                10);
+
+        assertThat(assignments).isEmpty();
+    }
+
+    @Test
+    void spreadsTicketsOverTheLeastLoadedOperators() {
+        List<TicketAssignmentDto> assignments = TicketMatcher.match(
+                List.of(ticket(1, TicketUrgency.MEDIO, OperatorType.ZOOKEEPER, TODAY),
+                        ticket(2, TicketUrgency.MEDIO, OperatorType.ZOOKEEPER, TODAY),
+                        ticket(3, TicketUrgency.MEDIO, OperatorType.ZOOKEEPER, TODAY)),
+                List.of(operator(10, OperatorType.ZOOKEEPER, 2), operator(11, OperatorType.ZOOKEEPER, 0)),
+                10);
+
+        // 11 takes two tickets to catch up with 10, then the tie goes to the lower id
+        assertThat(assignments).extracting(TicketAssignmentDto::getTicket, TicketAssignmentDto::getUser)
+                .containsExactly(tuple(1L, 11L), tuple(2L, 11L), tuple(3L, 10L));
+    }
+
+    @Test
+    void neverFillsAnOperatorBeyondTheCap() {
+        List<TicketAssignmentDto> assignments = TicketMatcher.match(
+                List.of(ticket(1, TicketUrgency.BASSO, null, TODAY),
+                        ticket(2, TicketUrgency.BASSO, null, TODAY),
+                        ticket(3, TicketUrgency.BASSO, null, TODAY)),
+                List.of(operator(10, OperatorType.ZOOKEEPER, 1), operator(11, OperatorType.VETERINARIAN, 3)),
+                3);
+
+        assertThat(assignments).extracting(TicketAssignmentDto::getUser).containsExactly(10L, 10L);
+    }
+
+    @Test
+    void servesUrgentAndOlderTicketsFirst() {
+        List<TicketAssignmentDto> assignments = TicketMatcher.match(
+                List.of(ticket(1, TicketUrgency.BASSO, null, TODAY.minusDays(10)),
+                        ticket(2, TicketUrgency.ALTO, null, TODAY),
+                        ticket(3, null, null, TODAY.minusDays(30)),
+                        ticket(4, TicketUrgency.ALTO, null, TODAY.minusDays(1)),
+                        ticket(5, TicketUrgency.ALTO, null, null)),
+                List.of(operator(10, null, 0)),
+                3);
+
+        assertThat(assignments).extracting(TicketAssignmentDto::getTicket).containsExactly(4L, 2L, 5L);
+    }
+
+    @Test
+    void ticketsWithoutARoleGoToAnyOperatorAndShareTheirLoad() {
+        List<TicketAssignmentDto> assignments = TicketMatcher.match(
+                List.of(ticket(1, TicketUrgency.ALTO, null, TODAY),
+                        ticket(2, TicketUrgency.MEDIO, OperatorType.ZOOKEEPER, TODAY),
+                        ticket(3, TicketUrgency.BASSO, null, TODAY)),
+                List.of(operator(10, OperatorType.ZOOKEEPER, 0), operator(11, null, 1)),
+                10);
+
+        // the generic ticket raises 10's load, so the typed one and the last generic one see it
+        assertThat(assignments).extracting(TicketAssignmentDto::getTicket, TicketAssignmentDto::getUser)
+                .containsExactly(tuple(1L, 10L), tuple(2L, 10L), tuple(3L, 11L));
+    }
+
+    private static PendingTicket ticket(long id, TicketUrgency urgency, OperatorType role, LocalDate creationDate) {
+        return new PendingTicket(id, urgency, role, creationDate, 1L);
+    }
+
+    private static Operator operator(long id, OperatorType type, int open) {
+        return new Operator(id, type, open, 1L);
+    }
+}
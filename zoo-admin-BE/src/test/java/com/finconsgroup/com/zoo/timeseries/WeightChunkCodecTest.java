@@ -0,0 +1,87 @@
+package com.finconsgroup.com.zoo.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeightChunkCodecTest {
+
+    private static final long START = 1_760_000_000_000L;
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void regularTimestampsCostOneBytePerSample() {
+        long[] timestamps = new long[1_000];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = START + i * HOUR;
+        }
+
+        byte[] encoded = WeightChunkCodec.encodeTimestamps(timestamps, timestamps.length);
+
+        // the first value and the first delta are full varints, the rest are zeros
+        assertThat(encoded.length).isLessThan(timestamps.length + 16);
+        assertThat(WeightChunkCodec.decodeTimestamps(encoded, timestamps.length)).containsExactly(timestamps);
+    }
+
+    @Test
+    void irregularAndDecreasingTimestampsRoundTrip() {
+        Random random = new Random(7);
+        long[] timestamps = new long[500];
+        timestamps[0] = START;
+        for (int i = 1; i < timestamps.length; i++) {
+            timestamps[i] = timestamps[i - 1] + random.nextLong(-HOUR, 10 * HOUR);
+        }
+
+        byte[] encoded = WeightChunkCodec.encodeTimestamps(timestamps, timestamps.length);
+
+        assertThat(WeightChunkCodec.decodeTimestamps(encoded, timestamps.length)).containsExactly(timestamps);
+    }
+
+    @Test
+    void encodesOnlyTheFirstCountEntries() {
+        long[] timestamps = {START, START + HOUR, START + 2 * HOUR, 0, 0};
+        double[] weights = {12.5, 12.75, 13.0, 0, 0};
+
+        long[] decodedTimestamps = WeightChunkCodec.decodeTimestamps(
+                WeightChunkCodec.encodeTimestamps(timestamps, 3), 3);
+        double[] decodedWeights = WeightChunkCodec.decodeWeights(WeightChunkCodec.encodeWeights(weights, 3), 3);
+
+        assertThat(decodedTimestamps).containsExactly(START, START + HOUR, START + 2 * HOUR);
+        assertThat(decodedWeights).containsExactly(12.5, 12.75, 13.0);
+    }
+
+    @Test
+    void weightsRoundTripToThreeDecimals() {
+        double[] weights = {0.0, 4_500.1234, 4_499.9876, 0.0005, -1.25, 180_000.0};
+
+        double[] decoded = WeightChunkCodec.decodeWeights(
+                WeightChunkCodec.encodeWeights(weights, weights.length), weights.length);
+
+        for (int i = 0; i < weights.length; i++) {
+            assertThat(decoded[i]).isEqualTo(WeightChunkCodec.round(weights[i]));
+        }
+        assertThat(decoded[1]).isEqualTo(4_500.123);
+        assertThat(decoded[3]).isEqualTo(0.001);
+    }
+
+    @Test
+    void smallWeightChangesStayCompact() {
+        double[] weights = new double[1_000];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 250.0 + (i % 2 == 0 ? 0.05 : -0.05);
+        }
+
+        byte[] encoded = WeightChunkCodec.encodeWeights(weights, weights.length);
+
+        assertThat(encoded.length).isLessThan(weights.length * 2 + 8);
+    }
+
+    @Test
+    void emptyChunksEncodeToNothing() {
+        assertThat(WeightChunkCodec.encodeTimestamps(new long[0], 0)).isEmpty();
+        assertThat(WeightChunkCodec.encodeWeights(new double[0], 0)).isEmpty();
+        assertThat(WeightChunkCodec.decodeTimestamps(new byte[0], 0)).isEmpty();
+    }
+}
@@ -1,6 +1,7 @@
 // MainDashboard.js
 import React, { useState, useEffect } from 'react';
 import authService from '../../services/authService';
+import apiService from '../../services/apiService';
 import ticketService from '../../services/ticketService';
 import AnimalList from '../animals/AnimalList';
 import AnimalForm from '../animals/AnimalForm';
@@ -26,6 +27,8 @@ const MainDashboard = ({ currentUser, onLogout }) => {
   const [showTicketForm, setShowTicketForm] = useState(false);
   const [selectedTicket, setSelectedTicket] = useState(null);
 
+  const [summary, setSummary] = useState(null);
+
   const userRole = currentUser?.role?.toUpperCase?.() || currentUser?.role || '';
   const isAdmin = userRole === 'ADMIN';
   const isManager = userRole === 'MANAGER';  
@@ -41,9 +44,20 @@ const MainDashboard = ({ currentUser, onLogout }) => {
   useEffect(() => {
     if (activeView === 'dashboard') {
       loadTickets();
+      if (isAdmin || isManager) {
+        loadSummary();
+      }
     }
   }, [activeView]);
 
+  const loadSummary = async () => {
+    try {
+      setSummary(await apiService.getSummary());
+    } catch (error) {
+      console.error('Errore nel caricamento del riepilogo:', error);
+    }
+  };
+
   const loadTickets = async () => {
     setTicketsLoading(true);
     setTicketsError(null);
@@ -321,6 +335,41 @@ const MainDashboard = ({ currentUser, onLogout }) => {
           <div className="stat-label">Il Tuo Ruolo</div>
         </div>
       </div>
+
+      {summary && (
+        <div className="dashboard-stats">
+          <div className="stat-card">
+            <div className="stat-number">{summary.animals}</div>
+            <div className="stat-label">Animali</div>
+          </div>
+          {Object.entries(summary.animalsByCategory).map(([category, count]) => (
+            <div className="stat-card" key={category}>
+              <div className="stat-number">{count}</div>
+              <div className="stat-label">{category}</div>
+            </div>
+          ))}
+          <div className="stat-card">
+            <div className="stat-number">{summary.enclosures}</div>
+            <div className="stat-label">Gabbie</div>
+          </div>
+          <div className="stat-card">
+            <div className="stat-number">{summary.users}</div>
+            <div className="stat-label">Utenti</div>
+          </div>
+          {Object.entries(summary.usersByRole).map(([role, count]) => (
+            <div className="stat-card" key={role}>
+              <div className="stat-number">{count}</div>
+              <div className="stat-label">{role}</div>
+            </div>
+          ))}
+          {Object.entries(summary.operatorsByType).map(([type, count]) => (
+            <div className="stat-card" key={type}>
+              <div className="stat-number">{count}</div>
+              <div className="stat-label">{type}</div>
+            </div>
+          ))}
+        </div>
+      )}
     </div>
   );
 
@@ -134,6 +134,11 @@ class ApiService {
   async deleteUser(id) {
     return this.makeRequest('DELETE', `/user/delete/${id}`);
   }
+
+  // Riepilogo per la dashboard
+  async getSummary() {
+    return this.makeRequest('GET', '/summary');
+  }
 }
 
 // Istanza singleton